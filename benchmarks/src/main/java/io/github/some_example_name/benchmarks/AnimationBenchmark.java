@@ -0,0 +1,93 @@
+package io.github.some_example_name.benchmarks;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import components.AnimationComponent;
+import components.FacingComponent;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import systems.AnimationSystem;
+import utils.FrameProfiler;
+import utils.GameConstants;
+
+/**
+ * Key frame lookups shaped like the ones AnimationSystem makes for every entity, and a whole
+ * AnimationSystem update over entities facing both ways. Run with -prof gc to check that picking
+ * frames, mirrored ones included, allocates nothing.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnimationBenchmark {
+    private static final int ENTITIES = 50;
+
+    private Animation<TextureRegion> idleAnimation;
+    private Animation<TextureRegion> deathAnimation;
+    private float stateTime;
+    private Engine engine;
+
+    private enum Pose {
+        IDLE
+    }
+
+    @Setup
+    public void setUp() {
+        // Regions without a texture behave the same for lookups and need no GL context
+        idleAnimation = new Animation<>(GameConstants.FRAME_DURATION, frames(8));
+        deathAnimation = new Animation<>(0.2f, frames(9));
+        stateTime = 0;
+
+        Animation<TextureRegion> mirrored = new Animation<>(GameConstants.FRAME_DURATION, frames(8));
+        AnimationComponent.Clip clip = new AnimationComponent.Clip(idleAnimation, mirrored, true, 1, 1, 0);
+        engine = new Engine();
+        engine.addSystem(new AnimationSystem(new FrameProfiler()));
+        for (int i = 0; i < ENTITIES; i++) {
+            Entity entity = new Entity();
+            entity.add(new AnimationComponent(Pose.values().length, 0).setClip(Pose.IDLE, clip));
+            FacingComponent facing = new FacingComponent();
+            facing.left = i % 2 == 0;
+            entity.add(facing);
+            engine.addEntity(entity);
+        }
+    }
+
+    private static TextureRegion[] frames(int count) {
+        TextureRegion[] frames = new TextureRegion[count];
+        for (int i = 0; i < count; i++) {
+            frames[i] = new TextureRegion();
+        }
+        return frames;
+    }
+
+    @Benchmark
+    public TextureRegion loopingKeyFrame() {
+        stateTime += GameConstants.TIME_STEP;
+        return idleAnimation.getKeyFrame(stateTime, true);
+    }
+
+    @Benchmark
+    public TextureRegion nonLoopingKeyFrame() {
+        stateTime += GameConstants.TIME_STEP;
+        return deathAnimation.getKeyFrame(stateTime, false);
+    }
+
+    @Benchmark
+    public Engine animationSystemUpdate() {
+        engine.update(GameConstants.TIME_STEP);
+        return engine;
+    }
+}
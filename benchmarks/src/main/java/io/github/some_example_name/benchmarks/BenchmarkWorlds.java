@@ -0,0 +1,22 @@
+package io.github.some_example_name.benchmarks;
+
+import GameMain.GameWorld;
+import utils.GameConstants;
+import utils.Log;
+
+/** Builds GameWorlds for the benchmarks the same way the game does. */
+final class BenchmarkWorlds {
+    private BenchmarkWorlds() {
+    }
+
+    static GameWorld create(int gridWidth, int gridHeight, int enemies) {
+        // Keep world setup messages out of the JMH output
+        Log.setLevel(Log.Level.WARN);
+        GameWorld gameWorld = new GameWorld(gridWidth, gridHeight);
+        float width = GameConstants.VIEWPORT_WIDTH - 1;
+        for (int i = 0; i < enemies; i++) {
+            gameWorld.spawnEnemy(0.5f + width * (i + 0.5f) / enemies, 1 + (i % 3));
+        }
+        return gameWorld;
+    }
+}
@@ -0,0 +1,114 @@
+package io.github.some_example_name.benchmarks;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.physics.box2d.BodyDef;
+import com.badlogic.gdx.physics.box2d.Fixture;
+import com.badlogic.gdx.physics.box2d.FixtureDef;
+import com.badlogic.gdx.physics.box2d.PolygonShape;
+import com.badlogic.gdx.physics.box2d.QueryCallback;
+import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.utils.Array;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import utils.GameConstants;
+import utils.SpatialGrid;
+
+/**
+ * One tick's worth of hit queries with every combatant swinging at once: CombatSystem's way
+ * (refill the spatial grid, then query it per attack) against a Box2D QueryAABB per attack,
+ * the way attacks used to look for targets. Combatants are spread over a 40x10 area.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CombatBenchmark {
+    private static final float HALF_SIZE = 0.25f;
+    private static final float REACH = 1f;
+
+    @Param({ "100", "500" })
+    public int combatants;
+
+    private float[] x;
+    private float[] y;
+    private World world;
+    private SpatialGrid<Object> grid;
+    private final Array<Object> found = new Array<>();
+    private int hits;
+    private final QueryCallback countHits = new QueryCallback() {
+        @Override
+        public boolean reportFixture(Fixture fixture) {
+            hits++;
+            return true;
+        }
+    };
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        RandomXS128 random = new RandomXS128(1);
+        x = new float[combatants];
+        y = new float[combatants];
+        world = new World(new Vector2(0, GameConstants.GRAVITY), true);
+        BodyDef bodyDef = new BodyDef();
+        bodyDef.type = BodyDef.BodyType.DynamicBody;
+        PolygonShape shape = new PolygonShape();
+        shape.setAsBox(HALF_SIZE, HALF_SIZE);
+        FixtureDef fixtureDef = new FixtureDef();
+        fixtureDef.shape = shape;
+        fixtureDef.density = 1f;
+        for (int i = 0; i < combatants; i++) {
+            x[i] = MathUtils.lerp(0, 40, random.nextFloat());
+            y[i] = MathUtils.lerp(1, 10, random.nextFloat());
+            bodyDef.position.set(x[i], y[i]);
+            Body body = world.createBody(bodyDef);
+            body.createFixture(fixtureDef);
+        }
+        shape.dispose();
+        grid = new SpatialGrid<>(GameConstants.COMBAT_CELL_SIZE, GameConstants.COMBAT_GRID_BUCKETS, false);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        world.dispose();
+    }
+
+    @Benchmark
+    public int spatialGrid() {
+        grid.clear();
+        for (int i = 0; i < combatants; i++) {
+            grid.add(this, x[i] - HALF_SIZE, y[i] - HALF_SIZE, x[i] + HALF_SIZE, y[i] + HALF_SIZE);
+        }
+        hits = 0;
+        for (int i = 0; i < combatants; i++) {
+            found.clear();
+            hits += grid.query(x[i], y[i] - HALF_SIZE, x[i] + REACH, y[i] + HALF_SIZE, found);
+        }
+        return hits;
+    }
+
+    @Benchmark
+    public int queryAABB() {
+        hits = 0;
+        for (int i = 0; i < combatants; i++) {
+            world.QueryAABB(countHits, x[i], y[i] - HALF_SIZE, x[i] + REACH, y[i] + HALF_SIZE);
+        }
+        return hits;
+    }
+}
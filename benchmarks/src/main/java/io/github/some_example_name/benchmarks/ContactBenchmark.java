@@ -0,0 +1,72 @@
+package io.github.some_example_name.benchmarks;
+
+import GameMain.GameWorld;
+import com.badlogic.gdx.physics.box2d.Contact;
+import com.badlogic.gdx.utils.Array;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import utils.ContactDispatcher;
+import utils.GameConstants;
+
+/**
+ * The world's contact callbacks over the live contacts of a settled world. Every contact goes
+ * through the ContactDispatcher, but only the player's foot sensor has a handler, and enemies
+ * piled on each other make no contacts at all, so the cost barely moves with the enemy count.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContactBenchmark {
+    @Param({ "2", "20" })
+    public int enemies;
+
+    private GameWorld gameWorld;
+    private ContactDispatcher dispatcher;
+    private Contact[] contacts;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        gameWorld = BenchmarkWorlds.create(GameWorld.DEFAULT_GRID_WIDTH, GameWorld.DEFAULT_GRID_HEIGHT, enemies);
+        dispatcher = gameWorld.getContacts();
+
+        // Let everything fall onto the platforms so there are resting contacts to replay
+        for (int i = 0; i < 600; i++) {
+            gameWorld.getWorld().step(GameConstants.TIME_STEP, GameConstants.VELOCITY_ITERATIONS,
+                    GameConstants.POSITION_ITERATIONS);
+        }
+        Array<Contact> list = gameWorld.getWorld().getContactList();
+        contacts = new Contact[list.size];
+        for (int i = 0; i < list.size; i++) {
+            contacts[i] = list.get(i);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        gameWorld.dispose();
+    }
+
+    @Benchmark
+    public int beginAndEndAllContacts() {
+        for (Contact contact : contacts) {
+            dispatcher.beginContact(contact);
+            dispatcher.endContact(contact);
+        }
+        return contacts.length;
+    }
+}
@@ -0,0 +1,97 @@
+package io.github.some_example_name.benchmarks;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.utils.Array;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import utils.GameConstants;
+import utils.SpatialGrid;
+
+/**
+ * One frame's worth of culling, the camera's view against sprites spread over a level as wide
+ * as there are sprites (ten per unit of width, so the view always holds about the same number).
+ * The grid benchmarks go through a SpatialGrid the way RenderSystem and GameWorld do: moving
+ * sprites are refiled every frame first, platforms never are. The scan benchmarks test every
+ * box against the view instead.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CullingBenchmark {
+    private static final float HALF_WIDTH = 0.32f;
+    private static final float HALF_HEIGHT = 0.24f;
+    private static final float SPRITES_PER_UNIT = 10;
+
+    @Param({ "500", "5000" })
+    public int sprites;
+
+    private float[] x;
+    private float[] y;
+    private int[] handles;
+    private SpatialGrid<Object> grid;
+    private final Array<Object> visible = new Array<>();
+    private float viewLeft;
+    private int frame;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        RandomXS128 random = new RandomXS128(1);
+        float width = sprites / SPRITES_PER_UNIT;
+        x = new float[sprites];
+        y = new float[sprites];
+        handles = new int[sprites];
+        grid = new SpatialGrid<>(GameConstants.CULLING_CELL_SIZE, GameConstants.CULLING_GRID_BUCKETS);
+        for (int i = 0; i < sprites; i++) {
+            x[i] = MathUtils.lerp(0, width, random.nextFloat());
+            y[i] = MathUtils.lerp(1, GameConstants.VIEWPORT_HEIGHT, random.nextFloat());
+            handles[i] = grid.add(this, x[i] - HALF_WIDTH, y[i] - HALF_HEIGHT, x[i] + HALF_WIDTH, y[i] + HALF_HEIGHT);
+        }
+        viewLeft = (width - GameConstants.VIEWPORT_WIDTH) / 2;
+    }
+
+    // Everything walks a little each frame, back and forth
+    @Benchmark
+    public int gridMoving() {
+        float step = (frame++ & 64) == 0 ? 0.05f : -0.05f;
+        for (int i = 0; i < sprites; i++) {
+            x[i] += step;
+            grid.update(handles[i], x[i] - HALF_WIDTH, y[i] - HALF_HEIGHT, x[i] + HALF_WIDTH, y[i] + HALF_HEIGHT);
+        }
+        return gridStatic();
+    }
+
+    @Benchmark
+    public int gridStatic() {
+        visible.clear();
+        return grid.query(viewLeft, 0, viewLeft + GameConstants.VIEWPORT_WIDTH, GameConstants.VIEWPORT_HEIGHT,
+                visible);
+    }
+
+    @Benchmark
+    public int scan() {
+        float viewRight = viewLeft + GameConstants.VIEWPORT_WIDTH;
+        visible.clear();
+        for (int i = 0; i < sprites; i++) {
+            if (x[i] - HALF_WIDTH <= viewRight && viewLeft <= x[i] + HALF_WIDTH && y[i] - HALF_HEIGHT <= GameConstants.VIEWPORT_HEIGHT
+                    && 0 <= y[i] + HALF_HEIGHT) {
+                visible.add(this);
+            }
+        }
+        return visible.size;
+    }
+}
@@ -0,0 +1,185 @@
+package io.github.some_example_name.benchmarks;
+
+import GameMain.GameWorld;
+import com.badlogic.gdx.ai.pfa.DefaultGraphPath;
+import com.badlogic.gdx.ai.pfa.indexed.IndexedAStarPathFinder;
+import com.badlogic.gdx.utils.IntArray;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import utils.CompactAStar;
+import utils.CompactGraph;
+import utils.GameConstants;
+import utils.GridGraph;
+import utils.GridNode;
+import utils.HierarchicalPathfinder;
+import utils.MyHeuristic;
+import utils.PathfindingService;
+
+/**
+ * A* searches over the game's GridGraph the way enemies run them, next to the same searches on
+ * the CompactGraph / CompactAStar representation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PathfindingBenchmark {
+    @Param({ "10", "50", "200" })
+    public int gridSize;
+
+    private GameWorld gameWorld;
+    private GridGraph graph;
+    private IndexedAStarPathFinder<GridNode> pathFinder;
+    private DefaultGraphPath<GridNode> path;
+    private MyHeuristic heuristic;
+    private PathfindingService pathfinding;
+    private GridNode start;
+    private GridNode farGoal;
+    private GridNode unreachable;
+
+    private static final int PAIRS = 64;
+    private CompactGraph compactGraph;
+    private CompactAStar compactAStar;
+    private IntArray compactPath;
+    private HierarchicalPathfinder hierarchical;
+    private int compactStart;
+    private int compactFarGoal;
+    private GridNode[] pairStarts;
+    private GridNode[] pairGoals;
+    private int[] compactPairStarts;
+    private int[] compactPairGoals;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        gameWorld = BenchmarkWorlds.create(gridSize, gridSize, 0);
+        graph = gameWorld.getGridGraph();
+        pathFinder = new IndexedAStarPathFinder<>(graph);
+        path = new DefaultGraphPath<>();
+        heuristic = new MyHeuristic();
+        pathfinding = new PathfindingService(graph);
+
+        // Bottom-left ground cell to the standable cell furthest up and to the right
+        start = graph.getNode(0, 1);
+        for (int x = gridSize - 1; x >= 0 && farGoal == null; x--) {
+            for (int y = gridSize - 1; y >= 0 && farGoal == null; y--) {
+                if (graph.getNode(x, y).isWalkable()) {
+                    farGoal = graph.getNode(x, y);
+                }
+            }
+        }
+        // Inside the ground: nothing leads there, so A* exhausts everything reachable first
+        unreachable = graph.getNode(gridSize - 1, 0);
+
+        compactGraph = new CompactGraph(graph);
+        compactAStar = new CompactAStar(compactGraph);
+        compactPath = new IntArray();
+        compactStart = compactGraph.getNode(start.getX(), start.getY());
+        compactFarGoal = compactGraph.getNode(farGoal.getX(), farGoal.getY());
+        hierarchical = new HierarchicalPathfinder(compactGraph, GameConstants.PATHFINDING_CLUSTER_SIZE);
+
+        // The same random pairs of standable cells for both representations
+        Random random = new Random(42);
+        pairStarts = new GridNode[PAIRS];
+        pairGoals = new GridNode[PAIRS];
+        compactPairStarts = new int[PAIRS];
+        compactPairGoals = new int[PAIRS];
+        for (int i = 0; i < PAIRS; i++) {
+            compactPairStarts[i] = random.nextInt(compactGraph.getNodeCount());
+            compactPairGoals[i] = random.nextInt(compactGraph.getNodeCount());
+            pairStarts[i] = graph.getNode(compactGraph.getX(compactPairStarts[i]), compactGraph.getY(compactPairStarts[i]));
+            pairGoals[i] = graph.getNode(compactGraph.getX(compactPairGoals[i]), compactGraph.getY(compactPairGoals[i]));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        gameWorld.dispose();
+    }
+
+    // Corner to corner across the level
+    @Benchmark
+    public int acrossLevel() {
+        path.clear();
+        pathFinder.searchNodePath(start, farGoal, heuristic, path);
+        return path.getCount();
+    }
+
+    // Unreachable goal: the worst case, every reachable cell gets expanded
+    @Benchmark
+    public int noPath() {
+        path.clear();
+        pathFinder.searchNodePath(start, unreachable, heuristic, path);
+        return path.getCount();
+    }
+
+    @Benchmark
+    public int compactAcrossLevel() {
+        compactAStar.search(compactStart, compactFarGoal, compactPath);
+        return compactPath.size;
+    }
+
+    // Abstract search plus refining the first leg, which is what an enemy asks for
+    @Benchmark
+    public int hierarchicalAcrossLevel() {
+        hierarchical.search(compactStart, compactFarGoal);
+        hierarchical.refine(compactPath);
+        return compactPath.size;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public int randomPairs() {
+        int total = 0;
+        for (int i = 0; i < PAIRS; i++) {
+            path.clear();
+            pathFinder.searchNodePath(pairStarts[i], pairGoals[i], heuristic, path);
+            total += path.getCount();
+        }
+        return total;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public int compactRandomPairs() {
+        int total = 0;
+        for (int i = 0; i < PAIRS; i++) {
+            compactAStar.search(compactPairStarts[i], compactPairGoals[i], compactPath);
+            total += compactPath.size;
+        }
+        return total;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public int hierarchicalRandomPairs() {
+        int total = 0;
+        for (int i = 0; i < PAIRS; i++) {
+            hierarchical.search(compactPairStarts[i], compactPairGoals[i]);
+            hierarchical.refine(compactPath);
+            total += compactPath.size;
+        }
+        return total;
+    }
+
+    // Same query through the shared service, which answers repeats from its cache
+    @Benchmark
+    public int cachedAcrossLevel() {
+        return pathfinding.findPath(start, farGoal).getCount();
+    }
+}
@@ -0,0 +1,102 @@
+package io.github.some_example_name.benchmarks;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.physics.box2d.BodyDef;
+import com.badlogic.gdx.physics.box2d.FixtureDef;
+import com.badlogic.gdx.physics.box2d.PolygonShape;
+import com.badlogic.gdx.physics.box2d.World;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import utils.GameConstants;
+import utils.StaticGeometryBuilder;
+
+/**
+ * world.step over a dense tile level (every tile its own 1x1 platform) with boxes running back
+ * and forth across it, with the tiles merged by StaticGeometryBuilder or left one body each.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StaticGeometryBenchmark {
+    private static final int LEVEL_WIDTH = 200;
+    private static final int BOXES = 40;
+
+    @Param({ "false", "true" })
+    public boolean merged;
+
+    private World world;
+    private final Body[] boxes = new Body[BOXES];
+    private int tick;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        world = new World(new Vector2(0, GameConstants.GRAVITY * 10), true);
+        StaticGeometryBuilder builder = new StaticGeometryBuilder(world).setMerge(merged);
+        // Two rows of ground tiles, and four-tile ledges staggered over two rows above
+        for (int x = 0; x < LEVEL_WIDTH; x++) {
+            builder.add(x + 0.5f, 0.5f, 1, 1);
+            builder.add(x + 0.5f, 1.5f, 1, 1);
+            if (x % 8 < 4) {
+                builder.add(x + 0.5f, 4.5f, 1, 1);
+            } else {
+                builder.add(x + 0.5f, 6.5f, 1, 1);
+            }
+        }
+        builder.build();
+
+        BodyDef bodyDef = new BodyDef();
+        bodyDef.type = BodyDef.BodyType.DynamicBody;
+        PolygonShape shape = new PolygonShape();
+        shape.setAsBox(0.25f, 0.25f);
+        FixtureDef fixtureDef = new FixtureDef();
+        fixtureDef.shape = shape;
+        fixtureDef.density = 1f;
+        fixtureDef.friction = 0.5f;
+        for (int i = 0; i < BOXES; i++) {
+            bodyDef.position.set(2 + i * (LEVEL_WIDTH - 4f) / BOXES, 2.5f + (i % 2) * 3);
+            boxes[i] = world.createBody(bodyDef);
+            boxes[i].createFixture(fixtureDef);
+        }
+        shape.dispose();
+
+        for (int i = 0; i < 120; i++) {
+            step();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        world.dispose();
+    }
+
+    @Benchmark
+    public World worldStep() {
+        step();
+        return world;
+    }
+
+    // Everything runs right for two seconds, then left, so the boxes keep crossing tile seams
+    private void step() {
+        float speed = (tick++ / 120) % 2 == 0 ? 1 : -1;
+        for (Body box : boxes) {
+            box.setLinearVelocity(speed, box.getLinearVelocity().y);
+        }
+        world.step(GameConstants.TIME_STEP, GameConstants.VELOCITY_ITERATIONS, GameConstants.POSITION_ITERATIONS);
+    }
+}
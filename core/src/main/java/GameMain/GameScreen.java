@@ -1,180 +1,170 @@
 package GameMain;
 
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
 import com.badlogic.gdx.Screen;
-//import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
-import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
-import com.badlogic.gdx.math.Vector2;
-import com.badlogic.gdx.physics.box2d.Body;
-import com.badlogic.gdx.physics.box2d.BodyDef;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.physics.box2d.Box2DDebugRenderer;
-import com.badlogic.gdx.physics.box2d.FixtureDef;
-import com.badlogic.gdx.physics.box2d.PolygonShape;
-import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.viewport.FitViewport;
 import com.badlogic.gdx.utils.viewport.Viewport;
+import utils.FixedTimestep;
+import utils.FrameProfiler;
 import utils.GameConstants;
-import entities.Player;
 import entities.AnimatedBackground;
-import entities.Enemy;
-import entities.HealthBar;
 import entities.Platform;
-import java.util.ArrayList;
-import utils.AssetManager; 
-
-import utils.GridGraph;
-
-
-
+import systems.RenderSystem;
+import utils.AssetManager;
+
+/**
+ * Runs the simulation in fixed ticks and draws the world once per frame. Everything in a frame
+ * goes through one SpriteBatch between a single begin() and end(): the background, then the
+ * platforms, the sprites and, after switching to the HUD camera, the health bar. Platforms and
+ * the health bar are the atlas's white pixel tinted, so they share the sprites' texture and
+ * shader, and the batch only flushes when the background's textures give way to the atlas and
+ * when the camera changes.
+ */
 public class GameScreen implements Screen {
-    private final World world;
-    private Player player;
+    private final GameWorld gameWorld;
     private final OrthographicCamera camera;
+    // Screen-fixed overlays (the health bar) draw with this one, which never moves
+    private final OrthographicCamera hudCamera;
     private final Viewport viewport;
     private final SpriteBatch batch;
     private final Box2DDebugRenderer debugRenderer;
-    private final ShapeRenderer shapeRenderer;
-    private final ArrayList<Platform> platforms;
-    private final ArrayList<Enemy> enemies;
-    private final HealthBar healthBar;
+    private final TextureRegion white;
+    // The platforms in view this frame
+    private final Array<Platform> visiblePlatforms = new Array<>();
+    private final RenderSystem renderSystem;
     private final AnimatedBackground animatedBackground;
-    private GridGraph gridGraph;
+    private final FixedTimestep timestep;
+    private final FrameProfiler profiler;
+    private final ProfilerOverlay profilerOverlay;
 
+    // Expects AssetManager to have finished loading; see Main.startGame()
     public GameScreen() {
-        // Load assets
-        AssetManager.loadAssets();
-
-        world = new World(new Vector2(0, -1f), true);
+        timestep = new FixedTimestep(GameConstants.TIME_STEP, GameConstants.MAX_STEPS_PER_FRAME);
 
         camera = new OrthographicCamera();
         viewport = new FitViewport(GameConstants.VIEWPORT_WIDTH, GameConstants.VIEWPORT_HEIGHT, camera);
         camera.position.set(viewport.getWorldWidth() / 2, viewport.getWorldHeight() / 2, 0);
+        hudCamera = new OrthographicCamera();
+        hudCamera.setToOrtho(false, GameConstants.VIEWPORT_WIDTH, GameConstants.VIEWPORT_HEIGHT);
 
         batch = new SpriteBatch();
         debugRenderer = new Box2DDebugRenderer();
-        shapeRenderer = new ShapeRenderer();
-
-        platforms = new ArrayList<>();
-        enemies = new ArrayList<>();
-
-        createPlatforms();
+        white = AssetManager.getWhiteRegion();
 
-        // Initialize the health bar
-        healthBar = new HealthBar(0.4f, 4.3f, 1f, 0.4f, 100);
+        // Build the simulated world: physics, player, the level streamed in around them and pathfinding
+        gameWorld = new GameWorld(GameConstants.LEVEL_SEED);
+        profiler = gameWorld.getProfiler();
+        profilerOverlay = new ProfilerOverlay(profiler);
+        // The world's engine keeps the render system's entities up to date; it draws when we say
+        renderSystem = new RenderSystem(batch);
+        gameWorld.getEngine().addSystem(renderSystem);
 
-        // Pass the health bar to the player
-        player = new Player(world, viewport.getWorldWidth() / 2, 3, healthBar);
+        // Besides those in the level, enemies come in waves whenever the player has cleared them
+        gameWorld.getSpawner().setWaves(true);
 
-        // Initialize the grid graph for pathfinding and mark platform nodes as walkable
-        gridGraph = new GridGraph(10, 10, platforms); // Adjust size as needed
-
-        // Add enemies to the game
-        enemies.add(new Enemy(world, 5, 1, player, gridGraph));
-        enemies.add(new Enemy(world, 7, 3, player, gridGraph));
-
-        // Initialize the animated background with textures, speeds, and desired size
+        // Back to front: the sky and the far skyline stay put and are cached together, the nearer
+        // skylines scroll at a fraction of the camera's speed (layer 4 is detail on layer 3)
         Texture[] layers = { AssetManager.backgroundLayer1, AssetManager.backgroundLayer2, AssetManager.backgroundLayer3,
                 AssetManager.backgroundLayer4, AssetManager.backgroundLayer5 };
-        float[] speeds = { 1, 1, 1, 1, 1 };
-        float scaleWidth = 8;
+        float[] parallax = { 0, 0, 0.2f, 0.2f, 0.4f };
+        float scaleWidth = GameConstants.VIEWPORT_WIDTH;
         float scaleHeight = 5;
-        animatedBackground = new AnimatedBackground(layers, speeds, scaleWidth, scaleHeight);
+        animatedBackground = new AnimatedBackground(layers, parallax, true, scaleWidth, scaleHeight, batch);
 
         camera.update();
     }
 
     @Override
     public void render(float delta) {
+        // F3 shows the profiler, F4 saves what it has to a CSV file
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F3)) {
+            profilerOverlay.toggle();
+        }
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F4)) {
+            profilerOverlay.dumpCsv();
+        }
+        profilerOverlay.beginFrame();
+
         Gdx.gl.glClearColor(0, 0, 0, 1);
         Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
 
-        world.step(1 / 60f, 6, 2);
-
-        player.update();
-        for (Enemy e : enemies) {
-            e.update(delta);
+        // Run the simulation in fixed ticks, however long this frame took
+        gameWorld.getPlayer().pollInput();
+        int steps = timestep.advance(delta);
+        for (int i = 0; i < steps; i++) {
+            gameWorld.step(timestep.getStep());
         }
-        animatedBackground.update(delta);
+        float alpha = timestep.getAlpha();
 
+        // Follow the player sideways; the level is only one screen tall
+        camera.position.x = gameWorld.getPlayer().getInterpolatedX(alpha);
         camera.update();
+        // What the camera shows; only platforms and sprites overlapping it are drawn
+        float viewLeft = camera.position.x - camera.viewportWidth * camera.zoom / 2;
+        float viewBottom = camera.position.y - camera.viewportHeight * camera.zoom / 2;
+        float viewRight = viewLeft + camera.viewportWidth * camera.zoom;
+        float viewTop = viewBottom + camera.viewportHeight * camera.zoom;
 
         batch.setProjectionMatrix(camera.combined);
         batch.begin();
-        animatedBackground.render(batch);
-        for (Enemy e : enemies) {
-            e.render(batch);
+        profiler.begin(FrameProfiler.Phase.BACKGROUND);
+        animatedBackground.render(batch, viewLeft);
+        profiler.end(FrameProfiler.Phase.BACKGROUND);
+
+        // The first atlas draw flushes the background's last layer, which is counted here
+        profiler.begin(FrameProfiler.Phase.PLATFORMS);
+        visiblePlatforms.clear();
+        gameWorld.getPlatforms(viewLeft, viewBottom, viewRight, viewTop, visiblePlatforms);
+        batch.setColor(Platform.COLOR);
+        for (int i = 0; i < visiblePlatforms.size; i++) {
+            visiblePlatforms.get(i).render(batch, white);
         }
-        player.render(batch);
-        batch.end();
+        batch.setColor(Color.WHITE);
+        profiler.end(FrameProfiler.Phase.PLATFORMS);
 
-        shapeRenderer.setProjectionMatrix(camera.combined);
-        shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
-        for (Platform platform : platforms) {
-            platform.render(shapeRenderer);
-        }
-        shapeRenderer.end();
+        profiler.begin(FrameProfiler.Phase.SPRITES);
+        renderSystem.render(alpha, viewLeft, viewBottom, viewRight, viewTop);
+        profiler.end(FrameProfiler.Phase.SPRITES);
 
-        // Render the health bar last to ensure it is on top
-        healthBar.render(shapeRenderer, camera);
+        // Switching cameras flushes the world's draws; the HUD goes out at batch.end(), last so it's on top
+        profiler.begin(FrameProfiler.Phase.HUD);
+        batch.setProjectionMatrix(hudCamera.combined);
+        gameWorld.getHealthBar().render(batch, white);
+        batch.end();
+        profiler.end(FrameProfiler.Phase.HUD);
+        profiler.setBatchFlushes(batch.renderCalls);
 
         if (GameConstants.DEBUG_MODE) {
-            debugRenderer.render(world, camera.combined);
+            debugRenderer.render(gameWorld.getWorld(), camera.combined);
         }
-    }
-
-    private void createPlatforms() {
-        platforms.add(createPlatform(viewport.getWorldWidth() / 2, 0.5f, viewport.getWorldWidth(), 1f));
-        platforms.add(createPlatform(2, 2, 2, 0.3f));
-        platforms.add(createPlatform(6, 2, 2, 0.3f));
-        platforms.add(createPlatform(4, 3, 2, 0.3f));
 
-        // Debugging: Print platform positions
-        for (Platform platform : platforms) {
-            System.out.println("Platform at: " + platform.getBody().getPosition());
-        }
-    }
-
-    private Platform createPlatform(float x, float y, float width, float height) {
-        BodyDef bodyDef = new BodyDef();
-        bodyDef.position.set(x, y);
-        bodyDef.type = BodyDef.BodyType.StaticBody;
-        Body body = world.createBody(bodyDef);
-
-        PolygonShape shape = new PolygonShape();
-        shape.setAsBox(width / 2, height / 2);
-
-        FixtureDef fixtureDef = new FixtureDef();
-        fixtureDef.shape = shape;
-        fixtureDef.density = 1f;
-        fixtureDef.friction = 0.5f;
-        fixtureDef.restitution = 0f;
-        body.createFixture(fixtureDef);
-
-        shape.dispose();
-
-        return new Platform(body, width, height);
+        profilerOverlay.endFrame();
+        profilerOverlay.render();
     }
 
     @Override
     public void resize(int width, int height) {
         viewport.update(width, height, true);
-        camera.position.set(viewport.getWorldWidth() / 2, viewport.getWorldHeight() / 2, 0);
+        profilerOverlay.resize(width, height);
+        camera.position.y = viewport.getWorldHeight() / 2;
     }
 
     @Override
     public void dispose() {
-        world.dispose();
+        gameWorld.dispose();
         batch.dispose();
         debugRenderer.dispose();
-        shapeRenderer.dispose();
-        player.dispose();
-        for (Enemy e : enemies) {
-            e.dispose();
-        }
+        profilerOverlay.dispose();
+        animatedBackground.dispose();
     }
 
     @Override
@@ -192,4 +182,4 @@ public class GameScreen implements Screen {
     @Override
     public void hide() {
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,321 @@
+package GameMain;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.utils.ImmutableArray;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntMap;
+import com.badlogic.gdx.utils.ObjectIntMap;
+import components.AiComponent;
+import components.Mappers;
+import entities.Enemy;
+import entities.HealthBar;
+import entities.Platform;
+import entities.Player;
+import java.util.ArrayList;
+import systems.AiSystem;
+import systems.AnimationSystem;
+import systems.CombatSystem;
+import systems.EnemySpawnSystem;
+import systems.PhysicsSystem;
+import systems.PlayerSystem;
+import utils.ChunkGenerator;
+import utils.ContactDispatcher;
+import utils.FixtureType;
+import utils.FrameProfiler;
+import utils.GameConstants;
+import utils.GridGraph;
+import utils.Log;
+import utils.NavGraphBuilder;
+import utils.PathfindingService;
+import utils.SpatialGrid;
+import utils.StaticGeometryBuilder;
+
+/**
+ * Everything that gets simulated: the Box2D world, the player, enemies, platforms and the
+ * pathfinding grid. Holds no rendering state, so it can also be driven without a window.
+ *
+ * The player and enemies are entities in an Ashley engine, and each tick is one engine update:
+ * physics, then the player, enemy AI, combat and animation systems in that order.
+ *
+ * A world is either a fixed level of a given grid size, or a streamed one: an endless level
+ * generated from a seed, of which only the chunks around the player exist at any time. There
+ * the pathfinding grid is a fixed-size window over those chunks that moves with the player.
+ */
+public class GameWorld implements LevelStreamer.Listener {
+    public static final int DEFAULT_GRID_WIDTH = 10;
+    public static final int DEFAULT_GRID_HEIGHT = 10;
+
+    private final World world;
+    private final Engine engine;
+    private final Player player;
+    private final ArrayList<Platform> platforms;
+    // The same platforms by area, and each one's handle there
+    private final SpatialGrid<Platform> platformGrid = new SpatialGrid<>(GameConstants.CULLING_CELL_SIZE,
+            GameConstants.CULLING_GRID_BUCKETS);
+    private final ObjectIntMap<Platform> platformHandles = new ObjectIntMap<>();
+    private final ImmutableArray<Entity> enemies;
+    private final HealthBar healthBar;
+    private final StaticGeometryBuilder geometryBuilder;
+    private final NavGraphBuilder navBuilder;
+    private final GridGraph gridGraph;
+    private final PathfindingService pathfinding;
+    private final EnemySpawnSystem spawner;
+    private final FrameProfiler profiler;
+    private final ContactDispatcher contacts;
+
+    // Streamed levels only
+    private final LevelStreamer streamer;
+    private final IntMap<Array<Platform>> chunkPlatforms = new IntMap<>();
+
+    // A fixed level; bigger grids than the default are filled out with terraces
+    public GameWorld(int gridWidth, int gridHeight) {
+        this(gridWidth, gridHeight, null);
+    }
+
+    // An endless level generated from the seed
+    public GameWorld(long seed) {
+        this(LevelStreamer.getWindowWidth(), GameConstants.LEVEL_HEIGHT, new ChunkGenerator(seed));
+    }
+
+    private GameWorld(int gridWidth, int gridHeight, ChunkGenerator generator) {
+        world = new World(new Vector2(0, GameConstants.GRAVITY), true);
+        profiler = new FrameProfiler();
+
+        engine = new Engine();
+        engine.addSystem(new PhysicsSystem(world, profiler));
+        engine.addSystem(new PlayerSystem(profiler));
+        engine.addSystem(new AiSystem(profiler));
+        engine.addSystem(new CombatSystem(profiler));
+        engine.addSystem(new AnimationSystem(profiler));
+
+        platforms = new ArrayList<>();
+        enemies = engine.getEntitiesFor(Family.all(AiComponent.class).get());
+        geometryBuilder = new StaticGeometryBuilder(world);
+
+        // Initialize the health bar
+        healthBar = new HealthBar(0.4f, 4.3f, 1f, 0.4f, 100);
+
+        // Pass the health bar to the player
+        player = new Player(world, GameConstants.VIEWPORT_WIDTH / 2, 3, healthBar);
+        engine.addEntity(player);
+
+        // Only the player's feet want to hear about contacts
+        contacts = new ContactDispatcher();
+        contacts.setHandler(FixtureType.PLAYER_FOOT, player);
+        world.setContactListener(contacts);
+
+        int jumpHeight = NavGraphBuilder.jumpHeightCells(Enemy.JUMP_IMPULSE, Enemy.MASS, GameConstants.GRAVITY,
+                GameConstants.ENEMY_MAX_JUMP_CELLS);
+        navBuilder = new NavGraphBuilder(gridWidth, gridHeight, Enemy.ENEMY_SIZE)
+                .setJumpReach(jumpHeight, GameConstants.ENEMY_MAX_JUMP_DISTANCE);
+
+        if (generator == null) {
+            // The whole level is one region
+            addLayout(ChunkGenerator.startLayout());
+            // Bigger grids (benchmarks, stress tests) get filler terraces so navigation covers all of them
+            if (gridWidth > DEFAULT_GRID_WIDTH || gridHeight > DEFAULT_GRID_HEIGHT) {
+                createTerraces(gridWidth, gridHeight);
+            }
+            for (Platform platform : geometryBuilder.build()) {
+                addPlatform(platform);
+                Log.debug("Platform at: {}, {}", platform.getX(), platform.getY());
+            }
+            // Build the navigation graph once for the level from the platforms' surfaces
+            gridGraph = navBuilder.build(platforms);
+        } else {
+            gridGraph = new GridGraph(gridWidth, gridHeight);
+        }
+        pathfinding = new PathfindingService(gridGraph);
+        spawner = new EnemySpawnSystem(world, player, pathfinding, profiler);
+        engine.addSystem(spawner);
+
+        if (generator == null) {
+            streamer = null;
+        } else {
+            // Chunks loaded from here on also spawn their enemies, which needs pathfinding
+            streamer = new LevelStreamer(generator, this);
+            streamer.loadAround(player.getBody().getPosition().x);
+            rebuildNavigation();
+        }
+    }
+
+    public Enemy spawnEnemy(float x, float y) {
+        return spawner.spawn(x, y);
+    }
+
+    // Advances physics and game logic by exactly one tick
+    public void step(float dt) {
+        if (streamer != null) {
+            profiler.begin(FrameProfiler.Phase.STREAMING);
+            boolean changed = streamer.update(player.getBody().getPosition().x);
+            if (changed || streamer.getWindowStartX() != pathfinding.getOriginX()) {
+                rebuildNavigation();
+            }
+            profiler.end(FrameProfiler.Phase.STREAMING);
+        }
+
+        // Each system times itself as its own profiler phase
+        engine.update(dt);
+
+        // Spend this tick's pathfinding budget on whatever the enemies asked for
+        profiler.begin(FrameProfiler.Phase.PATHFINDING);
+        pathfinding.update();
+        profiler.end(FrameProfiler.Phase.PATHFINDING);
+    }
+
+    private void addLayout(ChunkGenerator.Layout layout) {
+        for (int i = 0; i < layout.getPlatformCount(); i++) {
+            geometryBuilder.add(layout.getPlatformX(i), layout.getPlatformY(i), layout.getPlatformWidth(i),
+                    layout.getPlatformHeight(i));
+        }
+    }
+
+    @Override
+    public void chunkLoaded(ChunkGenerator.Layout layout) {
+        // One body per chunk; its ground carries on smoothly into the neighbouring chunks
+        float left = layout.getIndex() * GameConstants.CHUNK_WIDTH;
+        addLayout(layout);
+        Array<Platform> created = geometryBuilder.setSharedEdges(left, left + GameConstants.CHUNK_WIDTH).build();
+        for (Platform platform : created) {
+            addPlatform(platform);
+        }
+        chunkPlatforms.put(layout.getIndex(), created);
+
+        for (int i = 0; i < layout.getSpawnCount(); i++) {
+            spawnEnemy(layout.getSpawnX(i), layout.getSpawnY(i));
+        }
+        Log.debug("Loaded chunk {}", layout.getIndex());
+    }
+
+    @Override
+    public void chunkUnloaded(int index) {
+        Array<Platform> removed = chunkPlatforms.remove(index);
+        Body destroyed = null;
+        for (Platform platform : removed) {
+            platforms.remove(platform);
+            platformGrid.remove(platformHandles.remove(platform, -1));
+            if (platform.getBody() != destroyed) {
+                destroyed = platform.getBody();
+                world.destroyBody(destroyed);
+            }
+        }
+        Log.debug("Unloaded chunk {}", index);
+    }
+
+    private void addPlatform(Platform platform) {
+        platforms.add(platform);
+        float halfWidth = platform.getWidth() / 2;
+        float halfHeight = platform.getHeight() / 2;
+        platformHandles.put(platform, platformGrid.add(platform, platform.getX() - halfWidth,
+                platform.getY() - halfHeight, platform.getX() + halfWidth, platform.getY() + halfHeight));
+    }
+
+    // Moves the navigation window to where the streamer now wants it and rebuilds it from the
+    // loaded platforms. Enemies that have ended up outside it go back to the pool.
+    private void rebuildNavigation() {
+        int originX = streamer.getWindowStartX();
+        int endX = originX + gridGraph.getWidth();
+        for (int i = enemies.size() - 1; i >= 0; i--) {
+            Entity enemy = enemies.get(i);
+            float x = Mappers.BODY.get(enemy).body.getPosition().x;
+            if (x < originX || x >= endX) {
+                spawner.despawn(enemy);
+            } else {
+                Mappers.AI.get(enemy).resetPath();
+            }
+        }
+
+        navBuilder.setOriginX(originX).rebuild(gridGraph, platforms);
+        pathfinding.graphRebuilt(originX);
+    }
+
+    // Ground across the rest of the grid plus staggered rows of ledges two cells apart
+    private void createTerraces(int gridWidth, int gridHeight) {
+        if (gridWidth > GameConstants.VIEWPORT_WIDTH) {
+            float groundWidth = gridWidth - GameConstants.VIEWPORT_WIDTH;
+            geometryBuilder.add(GameConstants.VIEWPORT_WIDTH + groundWidth / 2, 0.5f, groundWidth, 1f);
+        }
+        for (int y = 2; y < gridHeight - 1; y += 2) {
+            int offset = (y / 2) % 2 == 0 ? 0 : 2;
+            for (int x = offset; x + 3 <= gridWidth; x += 4) {
+                if (x < DEFAULT_GRID_WIDTH && y < DEFAULT_GRID_HEIGHT) {
+                    continue;
+                }
+                geometryBuilder.add(x + 1.5f, y, 3, 0.3f);
+            }
+        }
+    }
+
+    public World getWorld() {
+        return world;
+    }
+
+    // The world's contact listener; register a handler per fixture type to hear about contacts
+    public ContactDispatcher getContacts() {
+        return contacts;
+    }
+
+    public Player getPlayer() {
+        return player;
+    }
+
+    public ArrayList<Platform> getPlatforms() {
+        return platforms;
+    }
+
+    // Adds the platforms overlapping the box to out, without going through all of them; returns how many
+    public int getPlatforms(float minX, float minY, float maxX, float maxY, Array<Platform> out) {
+        return platformGrid.query(minX, minY, maxX, maxY, out);
+    }
+
+    // Live view of every entity with an AI, in no particular order
+    public ImmutableArray<Entity> getEnemies() {
+        return enemies;
+    }
+
+    // Renderers add their systems here; see RenderSystem
+    public Engine getEngine() {
+        return engine;
+    }
+
+    public HealthBar getHealthBar() {
+        return healthBar;
+    }
+
+    public GridGraph getGridGraph() {
+        return gridGraph;
+    }
+
+    public PathfindingService getPathfinding() {
+        return pathfinding;
+    }
+
+    // Spawns and recycles enemies, and sends waves of them when asked to
+    public EnemySpawnSystem getSpawner() {
+        return spawner;
+    }
+
+    // Per-phase timings for the simulation; the renderer adds its own phases and closes each frame
+    public FrameProfiler getProfiler() {
+        return profiler;
+    }
+
+    // Null for fixed levels
+    public LevelStreamer getStreamer() {
+        return streamer;
+    }
+
+    public void dispose() {
+        if (streamer != null) {
+            streamer.dispose();
+        }
+        engine.removeAllEntities();
+        engine.getSystem(AiSystem.class).dispose();
+        world.dispose();
+    }
+}
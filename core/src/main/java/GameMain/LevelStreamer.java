@@ -0,0 +1,152 @@
+package GameMain;
+
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.IntMap;
+import com.badlogic.gdx.utils.IntSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import utils.ChunkGenerator;
+import utils.GameConstants;
+
+/**
+ * Decides which chunks of a streamed level should exist around the player. Layouts are generated
+ * on a background thread ahead of time; turning them into bodies is left to the listener, on
+ * the thread that calls update(), at most one chunk per call so loading never lands in one frame.
+ */
+public class LevelStreamer implements Disposable {
+    /** Called on the updating thread as chunks come into and go out of range. */
+    public interface Listener {
+        void chunkLoaded(ChunkGenerator.Layout layout);
+
+        void chunkUnloaded(int index);
+    }
+
+    private final ChunkGenerator generator;
+    private final Listener listener;
+    private final ExecutorService executor;
+    private final IntMap<Future<ChunkGenerator.Layout>> generating = new IntMap<>();
+    private final IntSet loaded = new IntSet();
+    private int centerChunk;
+
+    public LevelStreamer(ChunkGenerator generator, Listener listener) {
+        this.generator = generator;
+        this.listener = listener;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "level-generator");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Generates and loads everything in range of x straight away, for the start of a level
+    public void loadAround(float x) {
+        centerChunk = ChunkGenerator.chunkAt(x);
+        for (int index = firstWanted(); index <= lastWanted(); index++) {
+            if (!loaded.contains(index)) {
+                load(generator.generate(index));
+            }
+        }
+    }
+
+    // Returns true if a chunk was loaded or unloaded
+    public boolean update(float x) {
+        centerChunk = ChunkGenerator.chunkAt(x);
+        boolean changed = unloadFarChunks();
+
+        for (int index = firstWanted(); index <= lastWanted(); index++) {
+            if (!loaded.contains(index) && !generating.containsKey(index)) {
+                final int chunk = index;
+                generating.put(index, executor.submit(() -> generator.generate(chunk)));
+            }
+        }
+
+        // Nearest first. The player's own chunk can't wait, the rest only load once generated.
+        for (int distance = 0; distance <= Math.max(GameConstants.CHUNKS_BEHIND, GameConstants.CHUNKS_AHEAD); distance++) {
+            if (finishLoading(centerChunk + distance, distance == 0) || finishLoading(centerChunk - distance, false)) {
+                return true;
+            }
+        }
+        return changed;
+    }
+
+    private boolean unloadFarChunks() {
+        int first = firstWanted() - GameConstants.CHUNK_UNLOAD_MARGIN;
+        int last = lastWanted() + GameConstants.CHUNK_UNLOAD_MARGIN;
+        boolean changed = false;
+        IntSet.IntSetIterator chunks = loaded.iterator();
+        while (chunks.hasNext) {
+            int index = chunks.next();
+            if (index < first || index > last) {
+                chunks.remove();
+                listener.chunkUnloaded(index);
+                changed = true;
+            }
+        }
+
+        // Layouts still being generated for chunks we've left behind aren't wanted any more
+        IntMap.Keys pending = generating.keys();
+        while (pending.hasNext) {
+            int index = pending.next();
+            if (index < firstWanted() || index > lastWanted()) {
+                generating.get(index).cancel(false);
+                pending.remove();
+            }
+        }
+        return changed;
+    }
+
+    private boolean finishLoading(int index, boolean wait) {
+        if (index < firstWanted() || index > lastWanted()) {
+            return false;
+        }
+        Future<ChunkGenerator.Layout> future = generating.get(index);
+        if (future == null || !wait && !future.isDone()) {
+            return false;
+        }
+        generating.remove(index);
+        try {
+            load(future.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for chunk " + index, e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Couldn't generate chunk " + index, e.getCause());
+        }
+        return true;
+    }
+
+    private void load(ChunkGenerator.Layout layout) {
+        loaded.add(layout.getIndex());
+        listener.chunkLoaded(layout);
+    }
+
+    private int firstWanted() {
+        return centerChunk - GameConstants.CHUNKS_BEHIND;
+    }
+
+    private int lastWanted() {
+        return centerChunk + GameConstants.CHUNKS_AHEAD;
+    }
+
+    // First world column that can be loaded while the player is where they were last update
+    public int getWindowStartX() {
+        return (firstWanted() - GameConstants.CHUNK_UNLOAD_MARGIN) * GameConstants.CHUNK_WIDTH;
+    }
+
+    // Width in columns of everything that can be loaded at once; never changes
+    public static int getWindowWidth() {
+        return (GameConstants.CHUNKS_BEHIND + GameConstants.CHUNKS_AHEAD + 1 + 2 * GameConstants.CHUNK_UNLOAD_MARGIN)
+                * GameConstants.CHUNK_WIDTH;
+    }
+
+    public int getLoadedCount() {
+        return loaded.size;
+    }
+
+    @Override
+    public void dispose() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,68 @@
+package GameMain;
+
+import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import utils.AssetManager;
+
+/**
+ * Shown between the menu and the game while assets are still loading. Main keeps the loading
+ * going every frame; this just draws the progress and starts the game once it's done.
+ */
+public class LoadingScreen implements Screen {
+    private static final float BAR_WIDTH = 400;
+    private static final float BAR_HEIGHT = 20;
+
+    private final Main game;
+    private final OrthographicCamera camera;
+
+    public LoadingScreen(Main game) {
+        this.game = game;
+        camera = new OrthographicCamera();
+        camera.setToOrtho(false, Main.VIRTUAL_WIDTH, Main.VIRTUAL_HEIGHT);
+    }
+
+    @Override
+    public void render(float delta) {
+        if (AssetManager.isLoaded()) {
+            game.startGame();
+            return;
+        }
+
+        camera.update();
+        float x = (Main.VIRTUAL_WIDTH - BAR_WIDTH) / 2;
+        float y = Main.VIRTUAL_HEIGHT / 2 - BAR_HEIGHT / 2;
+
+        game.shapeRenderer.setProjectionMatrix(camera.combined);
+        game.shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
+        game.shapeRenderer.setColor(Color.DARK_GRAY);
+        game.shapeRenderer.rect(x, y, BAR_WIDTH, BAR_HEIGHT);
+        game.shapeRenderer.setColor(Color.WHITE);
+        game.shapeRenderer.rect(x, y, BAR_WIDTH * AssetManager.getProgress(), BAR_HEIGHT);
+        game.shapeRenderer.end();
+
+        game.batch.setProjectionMatrix(camera.combined);
+        game.batch.begin();
+        game.font.draw(game.batch, "Loading...", x, y + BAR_HEIGHT + 30);
+        game.batch.end();
+    }
+
+    @Override
+    public void show() {}
+
+    @Override
+    public void resize(int width, int height) {}
+
+    @Override
+    public void pause() {}
+
+    @Override
+    public void resume() {}
+
+    @Override
+    public void hide() {}
+
+    @Override
+    public void dispose() {}
+}
@@ -17,6 +17,8 @@ import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.ScreenUtils;
 import com.badlogic.gdx.utils.viewport.FitViewport;
 import utils.AssetManager;
+import utils.GameConstants;
+import utils.Log;
 
 /** {@link com.badlogic.gdx.ApplicationListener} implementation shared by all platforms. */
 //Core Game Class
@@ -35,21 +37,45 @@ public class Main extends Game {
     // Game states
     public GameScreen gameScreen;
     public MenuScreen menuScreen;
+    public LoadingScreen loadingScreen;
+
+    private long createdAt;
     
     @Override
     public void create() {
-    	AssetManager.loadAssets();
+        createdAt = System.nanoTime();
+        // Start loading in the background; the menu needs none of it
+        AssetManager.queueAssets();
+
         // Initialize resources
         batch = new SpriteBatch();
         font = new BitmapFont();
         shapeRenderer = new ShapeRenderer();
         
-        // Initialize game states
-        gameScreen = new GameScreen();
+        // Initialize game states; the game screen waits until it's needed
         menuScreen = new MenuScreen(this);
+        loadingScreen = new LoadingScreen(this);
         
         // Set initial screen
         setScreen(menuScreen);
+        Log.info("Menu shown after {} ms", millisSinceCreate());
+    }
+
+    // Goes to the game, by way of the loading screen if the assets aren't in yet
+    public void startGame() {
+        if (!AssetManager.isLoaded()) {
+            setScreen(loadingScreen);
+            return;
+        }
+        if (gameScreen == null) {
+            gameScreen = new GameScreen();
+        }
+        setScreen(gameScreen);
+        Log.info("Gameplay started after {} ms", millisSinceCreate());
+    }
+
+    private int millisSinceCreate() {
+        return (int) ((System.nanoTime() - createdAt) / 1000000);
     }
 
     @Override
@@ -57,6 +83,11 @@ public class Main extends Game {
         // Clear the screen
         Gdx.gl.glClearColor(0.1f, 0.1f, 0.1f, 1);
         Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+
+        // Keep loading whatever screen is up
+        if (!AssetManager.isLoaded()) {
+            AssetManager.update(GameConstants.ASSET_LOAD_BUDGET_MILLIS);
+        }
         
         // Update and render current screen
         super.render();
@@ -91,5 +122,6 @@ public class Main extends Game {
         // Dispose screens
         if (gameScreen != null) gameScreen.dispose();
         if (menuScreen != null) menuScreen.dispose();
+        if (loadingScreen != null) loadingScreen.dispose();
     }
 }
\ No newline at end of file
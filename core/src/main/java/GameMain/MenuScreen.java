@@ -26,8 +26,7 @@ public class MenuScreen implements Screen {
         game.batch.end();
 
         if (Gdx.input.isKeyJustPressed(Keys.SPACE)) {
-            game.setScreen(game.gameScreen);
-            dispose();
+            game.startGame();
         }
     }
 
@@ -0,0 +1,172 @@
+package GameMain;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.graphics.profiling.GLProfiler;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.Disposable;
+import java.io.IOException;
+import java.io.Writer;
+import utils.FrameProfiler;
+import utils.Log;
+
+/**
+ * Draws a FrameProfiler's figures over the game in screen pixels: per-phase average, p99 and
+ * max, the GL counters, GC and heap, and the frame-time histogram. GL call counting is only
+ * switched on while the overlay is showing, since it wraps every GL call.
+ */
+public class ProfilerOverlay implements Disposable {
+    // The text is rebuilt this often rather than every frame so it can actually be read
+    private static final int REFRESH_FRAMES = 15;
+    private static final float MARGIN = 8;
+    private static final float BAR_WIDTH = 6;
+    private static final float BAR_HEIGHT = 40;
+
+    private final FrameProfiler profiler;
+    private final GLProfiler glProfiler;
+    private final SpriteBatch batch;
+    private final ShapeRenderer shapeRenderer;
+    private final BitmapFont font;
+    private final Matrix4 projection = new Matrix4();
+    private final StringBuilder text = new StringBuilder(1024);
+    private int framesSinceRefresh = REFRESH_FRAMES;
+    private boolean visible;
+
+    public ProfilerOverlay(FrameProfiler profiler) {
+        this.profiler = profiler;
+        glProfiler = new GLProfiler(Gdx.graphics);
+        batch = new SpriteBatch();
+        shapeRenderer = new ShapeRenderer();
+        font = new BitmapFont();
+        font.setColor(Color.WHITE);
+        projection.setToOrtho2D(0, 0, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+    }
+
+    public void toggle() {
+        visible = !visible;
+        if (visible) {
+            glProfiler.enable();
+            framesSinceRefresh = REFRESH_FRAMES;
+        } else {
+            glProfiler.disable();
+        }
+    }
+
+    public boolean isVisible() {
+        return visible;
+    }
+
+    // Call before anything is drawn, so the counters only cover this frame's game drawing
+    public void beginFrame() {
+        glProfiler.reset();
+    }
+
+    // Call once the game has drawn everything; closes the profiler's frame
+    public void endFrame() {
+        if (glProfiler.isEnabled()) {
+            profiler.setGlCounters(glProfiler.getDrawCalls(), glProfiler.getTextureBindings(), glProfiler.getShaderSwitches());
+        }
+        profiler.endFrame();
+    }
+
+    public void render() {
+        if (!visible) {
+            return;
+        }
+        if (++framesSinceRefresh >= REFRESH_FRAMES) {
+            framesSinceRefresh = 0;
+            buildText();
+        }
+
+        // Frame-time histogram along the bottom, one bar per bucket
+        int[] histogram = profiler.getHistogram(FrameProfiler.Phase.FRAME);
+        int tallest = 1;
+        for (int count : histogram) {
+            tallest = Math.max(tallest, count);
+        }
+        Gdx.gl.glEnable(GL20.GL_BLEND);
+        shapeRenderer.setProjectionMatrix(projection);
+        shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
+        shapeRenderer.setColor(0, 0, 0, 0.6f);
+        shapeRenderer.rect(MARGIN - 2, MARGIN - 2, histogram.length * BAR_WIDTH + 4, BAR_HEIGHT + 4);
+        shapeRenderer.setColor(Color.LIME);
+        for (int b = 0; b < histogram.length; b++) {
+            shapeRenderer.rect(MARGIN + b * BAR_WIDTH, MARGIN, BAR_WIDTH - 1, BAR_HEIGHT * histogram[b] / tallest);
+        }
+        shapeRenderer.end();
+
+        batch.setProjectionMatrix(projection);
+        batch.begin();
+        font.draw(batch, text, MARGIN, Gdx.graphics.getHeight() - MARGIN);
+        batch.end();
+    }
+
+    // Writes the profiler's window to a new CSV file next to the game and returns it
+    public FileHandle dumpCsv() {
+        FileHandle file = Gdx.files.local("profile-" + System.currentTimeMillis() + ".csv");
+        Writer writer = file.writer(false, "UTF-8");
+        try {
+            profiler.writeCsv(writer);
+            Log.info("Profile written to {}", file.file().getAbsolutePath());
+        } catch (IOException e) {
+            Log.error("Couldn't write " + file.path(), e);
+        } finally {
+            try {
+                writer.close();
+            } catch (IOException ignored) {
+            }
+        }
+        return file;
+    }
+
+    public void resize(int width, int height) {
+        projection.setToOrtho2D(0, 0, width, height);
+    }
+
+    private void buildText() {
+        text.setLength(0);
+        text.append("phase            avg / p99 / max ms\n");
+        for (FrameProfiler.Phase phase : FrameProfiler.Phase.values()) {
+            text.append(phase.getLabel()).append(": ");
+            appendMillis(profiler.getAverageMillis(phase));
+            text.append(" / ");
+            appendMillis(profiler.getPercentileMillis(phase, 0.99f));
+            text.append(" / ");
+            appendMillis(profiler.getMaxMillis(phase));
+            text.append('\n');
+        }
+        text.append("batch flushes: ").append(profiler.getLastBatchFlushes())
+                .append("  draw calls: ").append(profiler.getLastDrawCalls())
+                .append("  texture binds: ").append(profiler.getLastTextureBindings())
+                .append("  shader switches: ").append(profiler.getLastShaderSwitches()).append('\n');
+        text.append("heap: ").append(profiler.getLastHeapBytes() / (1024 * 1024)).append(" MB  GC: ")
+                .append(profiler.getWindowGcCount()).append(" runs, ");
+        appendMillis(profiler.getWindowGcMillis());
+        text.append(" ms over ").append(profiler.getSampleCount()).append(" frames\n");
+        text.append("F3 hide  F4 save CSV");
+    }
+
+    // Two decimals without going through String.format
+    private void appendMillis(float millis) {
+        int hundredths = Math.round(millis * 100);
+        text.append(hundredths / 100).append('.');
+        int fraction = hundredths % 100;
+        if (fraction < 10) {
+            text.append('0');
+        }
+        text.append(fraction);
+    }
+
+    @Override
+    public void dispose() {
+        glProfiler.disable();
+        batch.dispose();
+        shapeRenderer.dispose();
+        font.dispose();
+    }
+}
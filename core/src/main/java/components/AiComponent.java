@@ -0,0 +1,134 @@
+package components;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.gdx.ai.pfa.GraphPath;
+import com.badlogic.gdx.utils.Pool;
+import entities.Enemy;
+import utils.GridNode;
+import utils.Log;
+import utils.PathListener;
+import utils.PathfindingService;
+
+/**
+ * An enemy's brain: who it chases, how it finds its way there, the path it is following and
+ * whether it is in the middle of an attack. AiSystem makes the decisions; this keeps the path
+ * bookkeeping, since answers to path requests arrive here in between, and the decision itself
+ * until AiSystem acts on it.
+ */
+public class AiComponent implements Component, Pool.Poolable {
+    /**
+     * What the enemy decided to do this tick. AiSystem's think phase fills it in, possibly on a
+     * worker thread, and its apply phase carries it out on the simulation thread.
+     */
+    public static final class Intent {
+        public static final int NO_REQUEST = 0;
+        public static final int REQUEST_PATH = 1;
+        public static final int REQUEST_LEG = 2;
+
+        // Null leaves the animation as it is
+        public Enemy.State state;
+        // Walk at (moveX, moveY), facing that way, or stop where we are; neither leaves the body alone
+        public boolean walk;
+        public boolean stop;
+        public float moveX;
+        public float moveY;
+        public boolean jump;
+        public boolean attack;
+        // A search the think phase couldn't answer from the cache, between these cells
+        public int request;
+        public GridNode requestStart;
+        public GridNode requestGoal;
+
+        public void clear() {
+            state = null;
+            walk = false;
+            stop = false;
+            moveX = 0;
+            moveY = 0;
+            jump = false;
+            attack = false;
+            request = NO_REQUEST;
+            requestStart = null;
+            requestGoal = null;
+        }
+    }
+
+    public final Entity target;
+    public final PathfindingService pathfinding;
+    public Enemy.NavigationMode navigationMode = Enemy.NavigationMode.A_STAR;
+
+    // Shared, read-only path from the service; pathIndex is the waypoint we're standing on
+    public GraphPath<GridNode> path;
+    public int pathIndex;
+    public GridNode pathStart;
+    public GridNode pathGoal;
+    public GridNode currentCell;
+    public GridNode requestedGoal;
+    public boolean awaitingPath;
+    public final PathListener pathListener = this::onPathFound;
+
+    public boolean attacking;
+    public float attackTimer;
+
+    public final Intent intent = new Intent();
+
+    public AiComponent(Entity target, PathfindingService pathfinding) {
+        this.target = target;
+        this.pathfinding = pathfinding;
+    }
+
+    private void onPathFound(GridNode start, GridNode goal, GraphPath<GridNode> newPath) {
+        // Ignore answers to questions we've stopped asking
+        if (!awaitingPath || goal != requestedGoal) {
+            return;
+        }
+        awaitingPath = false;
+        usePath(start, goal, newPath);
+    }
+
+    public void usePath(GridNode start, GridNode goal, GraphPath<GridNode> newPath) {
+        path = newPath;
+        pathStart = start;
+        pathGoal = goal;
+
+        // We may have moved while the search ran; pick up from our cell if it's on the path
+        pathIndex = 0;
+        for (int i = 0; i < path.getCount(); i++) {
+            if (path.get(i) == currentCell) {
+                pathIndex = i;
+                break;
+            }
+        }
+
+        // Debugging: Print path node positions
+        if (Log.isDebugEnabled()) {
+            if (path.getCount() > 0) {
+                for (int i = 0; i < path.getCount(); i++) {
+                    Log.debug("Path node: ({}, {})", pathfinding.getWorldX(path.get(i)), path.get(i).getY());
+                }
+            } else {
+                Log.debug("No path found.");
+            }
+        }
+    }
+
+    // Forgets the current path and any pending request; call after the navigation graph changes
+    public void resetPath() {
+        path = null;
+        pathStart = null;
+        pathGoal = null;
+        currentCell = null;
+        requestedGoal = null;
+        awaitingPath = false;
+    }
+
+    @Override
+    public void reset() {
+        resetPath();
+        navigationMode = Enemy.NavigationMode.A_STAR;
+        attacking = false;
+        attackTimer = 0;
+        intent.clear();
+    }
+}
@@ -0,0 +1,86 @@
+package components;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Pool;
+
+/**
+ * The entity's animation state: which state it is in (an ordinal of the entity's own State
+ * enum), for how long, and the clip to play in each state. Systems only set the state;
+ * AnimationSystem turns it into this tick's frame and RenderSystem draws that.
+ */
+public class AnimationComponent implements Component, Pool.Poolable {
+    /** An animation, its mirrored twin for facing left, and how big to draw them, in world units. */
+    public static final class Clip {
+        public final Animation<TextureRegion> animation;
+        // Null draws the unmirrored frames both ways
+        public final Animation<TextureRegion> mirrored;
+        public final boolean looping;
+        public final float width;
+        public final float height;
+        // How far below the body's centre the sprite's centre sits
+        public final float offsetY;
+
+        public Clip(Animation<TextureRegion> animation, Animation<TextureRegion> mirrored, boolean looping, float width,
+                float height, float offsetY) {
+            this.animation = animation;
+            this.mirrored = mirrored;
+            this.looping = looping;
+            this.width = width;
+            this.height = height;
+            this.offsetY = offsetY;
+        }
+    }
+
+    // Indexed by state ordinal; null where a state has nothing to show
+    private final Clip[] clips;
+    // Entities on higher layers are drawn over lower ones
+    public final int layer;
+
+    private int state;
+    // Seconds since the state last changed
+    public float time;
+    // Picked by AnimationSystem each tick, already facing the right way; null draws nothing
+    public TextureRegion frame;
+
+    public AnimationComponent(int stateCount, int layer) {
+        this.clips = new Clip[stateCount];
+        this.layer = layer;
+    }
+
+    public AnimationComponent setClip(Enum<?> state, Clip clip) {
+        clips[state.ordinal()] = clip;
+        return this;
+    }
+
+    // Restarts the clip only when the state actually changes
+    public void setState(Enum<?> state) {
+        if (state.ordinal() != this.state) {
+            this.state = state.ordinal();
+            time = 0;
+        }
+    }
+
+    public boolean isState(Enum<?> state) {
+        return state.ordinal() == this.state;
+    }
+
+    public Clip getClip() {
+        return clips[state];
+    }
+
+    // True once a clip that doesn't loop has played to the end
+    public boolean isFinished() {
+        Clip clip = clips[state];
+        return clip == null || clip.animation == null || !clip.looping && clip.animation.isAnimationFinished(time);
+    }
+
+    // Back to the first state; the clips stay
+    @Override
+    public void reset() {
+        state = 0;
+        time = 0;
+        frame = null;
+    }
+}
@@ -0,0 +1,22 @@
+package components;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Body;
+
+/** An entity's Box2D body, and where it was at the start of the current tick. */
+public class BodyComponent implements Component {
+    public final Body body;
+    // Set by PhysicsSystem before the world steps, used to interpolate rendering
+    public final Vector2 previousPosition = new Vector2();
+
+    public BodyComponent(Body body) {
+        this.body = body;
+        previousPosition.set(body.getPosition());
+    }
+
+    // Where the body is drawn this frame, alpha of the way from the last tick to this one
+    public Vector2 interpolate(float alpha, Vector2 out) {
+        return out.set(previousPosition).lerp(body.getPosition(), alpha);
+    }
+}
@@ -0,0 +1,14 @@
+package components;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.gdx.utils.Pool;
+
+/** Which way an entity looks; sprites are drawn mirrored when facing left. */
+public class FacingComponent implements Component, Pool.Poolable {
+    public boolean left;
+
+    @Override
+    public void reset() {
+        left = false;
+    }
+}
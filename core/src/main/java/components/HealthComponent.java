@@ -0,0 +1,53 @@
+package components;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.gdx.utils.Pool;
+import entities.HealthBar;
+
+/**
+ * Hit points and what happens around being hit. Damage is only queued here; CombatSystem applies
+ * it once per tick, along with the hurt and invincibility timers, and kills the entity at zero.
+ */
+public class HealthComponent implements Component, Pool.Poolable {
+    public final float max;
+    public float current;
+    // Queued since the last CombatSystem update
+    public float pendingDamage;
+
+    // How long a hit stuns, and how long afterwards further hits are ignored (0 for never)
+    public final float hurtDuration;
+    public final float invincibilityDuration;
+
+    public boolean hurt;
+    public float hurtTimer;
+    public boolean invincible;
+    public float invincibilityTimer;
+    public boolean dead;
+
+    // Shows current health on screen, for the entities that have one
+    public HealthBar bar;
+
+    public HealthComponent(float max, float hurtDuration, float invincibilityDuration) {
+        this.max = max;
+        this.current = max;
+        this.hurtDuration = hurtDuration;
+        this.invincibilityDuration = invincibilityDuration;
+    }
+
+    // Hits in one tick add up, except on something a hit makes invincible: there only the hardest lands
+    public void damage(float amount) {
+        pendingDamage = invincibilityDuration > 0 ? Math.max(pendingDamage, amount) : pendingDamage + amount;
+    }
+
+    // Back to full health, as if just spawned
+    @Override
+    public void reset() {
+        current = max;
+        pendingDamage = 0;
+        hurt = false;
+        hurtTimer = 0;
+        invincible = false;
+        invincibilityTimer = 0;
+        dead = false;
+    }
+}
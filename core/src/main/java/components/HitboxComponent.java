@@ -0,0 +1,63 @@
+package components;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Pool;
+
+/**
+ * The attack an entity is swinging, if any. An attack starts the swing; CombatSystem moves the
+ * box along with the body, checks it against hurtboxes while it is active and deals its damage,
+ * at most once per target per swing. Starting another swing replaces this one.
+ */
+public class HitboxComponent implements Component, Pool.Poolable {
+    /** Shape, damage and timing of one kind of attack, for facing right. */
+    public static final class Attack {
+        // Centre of the box relative to the body's, and its half extents
+        public final float offsetX;
+        public final float offsetY;
+        public final float halfWidth;
+        public final float halfHeight;
+        public final float damage;
+        // The active frames, in seconds since the swing started; the box hits nothing outside them
+        public final float activeFrom;
+        public final float activeUntil;
+
+        public Attack(float offsetX, float offsetY, float halfWidth, float halfHeight, float damage, float activeFrom,
+                float activeUntil) {
+            this.offsetX = offsetX;
+            this.offsetY = offsetY;
+            this.halfWidth = halfWidth;
+            this.halfHeight = halfHeight;
+            this.damage = damage;
+            this.activeFrom = activeFrom;
+            this.activeUntil = activeUntil;
+        }
+    }
+
+    // Null between swings
+    public Attack attack;
+    // Mirrored when the swing started facing left
+    public boolean left;
+    public float time;
+    // Everything this swing has already hit
+    public final Array<Entity> struck = new Array<>(false, 8);
+
+    public void start(Attack attack, boolean left) {
+        this.attack = attack;
+        this.left = left;
+        time = 0;
+        struck.clear();
+    }
+
+    public void cancel() {
+        attack = null;
+        struck.clear();
+    }
+
+    @Override
+    public void reset() {
+        cancel();
+        time = 0;
+    }
+}
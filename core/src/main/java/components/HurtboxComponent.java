@@ -0,0 +1,24 @@
+package components;
+
+import com.badlogic.ashley.core.Component;
+
+/**
+ * The box around an entity's body that attacks can land on, and which side it is on; hitboxes
+ * only hit hurtboxes of the other team. CombatSystem puts every live one in its spatial grid
+ * each tick.
+ */
+public class HurtboxComponent implements Component {
+    public enum Team {
+        PLAYER, ENEMIES
+    }
+
+    public final Team team;
+    public final float halfWidth;
+    public final float halfHeight;
+
+    public HurtboxComponent(Team team, float halfWidth, float halfHeight) {
+        this.team = team;
+        this.halfWidth = halfWidth;
+        this.halfHeight = halfHeight;
+    }
+}
@@ -0,0 +1,18 @@
+package components;
+
+import com.badlogic.ashley.core.ComponentMapper;
+
+/** One ComponentMapper per component type, shared by all systems. */
+public final class Mappers {
+    public static final ComponentMapper<BodyComponent> BODY = ComponentMapper.getFor(BodyComponent.class);
+    public static final ComponentMapper<HealthComponent> HEALTH = ComponentMapper.getFor(HealthComponent.class);
+    public static final ComponentMapper<FacingComponent> FACING = ComponentMapper.getFor(FacingComponent.class);
+    public static final ComponentMapper<AnimationComponent> ANIMATION = ComponentMapper.getFor(AnimationComponent.class);
+    public static final ComponentMapper<AiComponent> AI = ComponentMapper.getFor(AiComponent.class);
+    public static final ComponentMapper<PlayerComponent> PLAYER = ComponentMapper.getFor(PlayerComponent.class);
+    public static final ComponentMapper<HurtboxComponent> HURTBOX = ComponentMapper.getFor(HurtboxComponent.class);
+    public static final ComponentMapper<HitboxComponent> HITBOX = ComponentMapper.getFor(HitboxComponent.class);
+
+    private Mappers() {
+    }
+}
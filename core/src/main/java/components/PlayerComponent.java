@@ -0,0 +1,30 @@
+package components;
+
+import com.badlogic.ashley.core.Component;
+import entities.KeyboardInput;
+import entities.PlayerInput;
+
+/** What the player is doing: where its input comes from, and its attack, dodge and jump state. */
+public class PlayerComponent implements Component {
+    public PlayerInput input = new KeyboardInput();
+
+    // Set by the foot sensor's contacts: how many pieces of ground it touches, and whether the
+    // player has landed since the last jump
+    public int footContacts;
+    public boolean canJump;
+    public boolean inAir;
+
+    public boolean attacking;
+    public float attackTimer;
+
+    public boolean lightAttacking;
+    public float lightAttackTimer;
+    // 0 = no attack, 1 = first attack, 2 = second attack
+    public int lightAttackCombo;
+    public float comboTimer;
+
+    public boolean dodging;
+    public float dodgeTimer;
+    public float dodgeCooldownTimer;
+    public boolean canDodge = true;
+}
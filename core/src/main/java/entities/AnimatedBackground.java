@@ -1,39 +1,111 @@
 package entities;
 
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Pixmap;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.glutils.FrameBuffer;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.Disposable;
 
-
-public class AnimatedBackground {
-    private final Texture[] layers;
-    private final float[] speeds;
-    private final float[] offsets;
+/**
+ * Parallax background: each layer is one screen-sized quad whose texture coordinates slide with
+ * the camera, the layer's texture wrapping around (it has to be loaded with TextureWrap.Repeat
+ * sideways; AssetManager does). A layer's parallax factor is how far it moves for each unit the
+ * camera does: 0 stays put like the sky, 1 would move with the level.
+ *
+ * If the back layer is opaque, it and the layers right in front of it with the same factor never
+ * move against each other, so they're composited once into a FrameBuffer and drawn as a single
+ * quad, without blending. Every other layer still costs a full-screen blended quad per frame.
+ */
+public class AnimatedBackground implements Disposable {
+    // What's drawn, back to front: the cache first if there is one, then the remaining layers
+    private final Texture[] textures;
+    private final float[] parallax;
+    private final boolean opaqueBack;
+    private final FrameBuffer cache;
     private final float width;
     private final float height;
 
-    public AnimatedBackground(Texture[] layers, float[] speeds, float width, float height) {
-        this.layers = layers;
-        this.speeds = speeds;
-        this.offsets = new float[layers.length];
+    // Layers go back to front. The batch is only used here to build the cache, and mustn't have begun.
+    public AnimatedBackground(Texture[] layers, float[] parallax, boolean opaqueBack, float width, float height,
+            SpriteBatch batch) {
+        int cached = 0;
+        if (opaqueBack) {
+            while (cached < layers.length && parallax[cached] == parallax[0]) {
+                cached++;
+            }
+        }
+        this.cache = cached > 1 ? composite(layers, cached, batch) : null;
+        int first = cache == null ? 0 : cached;
+        int count = layers.length - first + (cache == null ? 0 : 1);
+
+        this.textures = new Texture[count];
+        this.parallax = new float[count];
+        int i = 0;
+        if (cache != null) {
+            textures[i] = cache.getColorBufferTexture();
+            this.parallax[i++] = parallax[0];
+        }
+        for (int layer = first; layer < layers.length; layer++, i++) {
+            textures[i] = layers[layer];
+            this.parallax[i] = parallax[layer];
+        }
+        this.opaqueBack = opaqueBack;
         this.width = width;
         this.height = height;
     }
 
-    public void update(float deltaTime) {
-        for (int i = 0; i < layers.length; i++) {
-            offsets[i] += speeds[i] * deltaTime;
-            if (offsets[i] > width) {
-                offsets[i] -= width;
+    // Draws the first count layers, at their own resolution, into a texture that wraps like they do.
+    // Its contents don't survive a lost GL context, which the desktop backend never has.
+    private static FrameBuffer composite(Texture[] layers, int count, SpriteBatch batch) {
+        int textureWidth = layers[0].getWidth();
+        int textureHeight = layers[0].getHeight();
+        FrameBuffer frameBuffer = new FrameBuffer(Pixmap.Format.RGBA8888, textureWidth, textureHeight, false);
+        Texture texture = frameBuffer.getColorBufferTexture();
+        texture.setWrap(Texture.TextureWrap.Repeat, Texture.TextureWrap.ClampToEdge);
+        texture.setFilter(layers[0].getMinFilter(), layers[0].getMagFilter());
+
+        frameBuffer.begin();
+        Gdx.gl.glClearColor(0, 0, 0, 1);
+        Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+        batch.setProjectionMatrix(new Matrix4().setToOrtho2D(0, 0, textureWidth, textureHeight));
+        batch.begin();
+        for (int i = 0; i < count; i++) {
+            batch.draw(layers[i], 0, 0, textureWidth, textureHeight);
+        }
+        batch.end();
+        frameBuffer.end();
+        return frameBuffer;
+    }
+
+    // Draws the layers with their left edge at x, the camera's, one quad each
+    public void render(SpriteBatch batch, float x) {
+        for (int i = 0; i < textures.length; i++) {
+            // Only the fraction matters to a repeating texture, and keeping it small keeps it precise far out
+            float u = x * parallax[i] / width;
+            u -= (float) Math.floor(u);
+            boolean opaque = i == 0 && opaqueBack;
+            if (opaque) {
+                batch.disableBlending();
+            }
+            // The cache was rendered upside down, as frame buffers are
+            if (i == 0 && cache != null) {
+                batch.draw(textures[i], x, 0, width, height, u, 0, u + 1, 1);
+            } else {
+                batch.draw(textures[i], x, 0, width, height, u, 1, u + 1, 0);
+            }
+            if (opaque) {
+                batch.enableBlending();
             }
         }
     }
 
-    public void render(SpriteBatch batch) {
-        for (int i = 0; i < layers.length; i++) {
-            // Draw the first instance of the texture
-            batch.draw(layers[i], -offsets[i], 0, width, height);
-            // Draw a second instance of the texture, offset by its width, to create the looping effect
-            batch.draw(layers[i], width - offsets[i], 0, width, height);
+    @Override
+    public void dispose() {
+        if (cache != null) {
+            cache.dispose();
         }
     }
-}
\ No newline at end of file
+}
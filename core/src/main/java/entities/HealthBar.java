@@ -1,12 +1,10 @@
 package entities;
 
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.graphics.OrthographicCamera;
-import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
-
-import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
-import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 
+// The player's health in the corner of the screen, drawn in HUD coordinates
 public class HealthBar {
     private float x, y, width, height;
     private float health;
@@ -23,18 +21,16 @@ public class HealthBar {
         this.health = health;
     }
 
-    public void render(ShapeRenderer shapeRenderer, OrthographicCamera camera) {
-        shapeRenderer.setProjectionMatrix(camera.combined);
-        shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
-
+    // Draws into a batch that's already begun with the HUD camera; leaves its colour white
+    public void render(Batch batch, TextureRegion white) {
         // Draw the background of the health bar
-        shapeRenderer.setColor(1, 0, 0, 1);
-        shapeRenderer.rect(x, y, width, height);
+        batch.setColor(1, 0, 0, 1);
+        batch.draw(white, x, y, width, height);
 
         // Draw the foreground of the health bar
-        shapeRenderer.setColor(0, 1, 0, 1);
-        shapeRenderer.rect(x, y, width * (health / 100), height);
+        batch.setColor(0, 1, 0, 1);
+        batch.draw(white, x, y, width * (health / 100), height);
 
-        shapeRenderer.end();
+        batch.setColor(Color.WHITE);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,70 @@
+package entities;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
+
+/**
+ * Reads the player's keys from Gdx.input. Presses are latched once per frame so that a
+ * frame running zero or several ticks neither drops nor repeats them.
+ */
+public class KeyboardInput implements PlayerInput {
+    private boolean lightAttackPressed;
+    private boolean attackPressed;
+    private boolean damagePressed;
+    private boolean dodgePressed;
+    private boolean jumpPressed;
+
+    @Override
+    public void poll() {
+        lightAttackPressed |= Gdx.input.isKeyJustPressed(Input.Keys.R);
+        attackPressed |= Gdx.input.isKeyJustPressed(Input.Keys.E);
+        damagePressed |= Gdx.input.isKeyJustPressed(Input.Keys.H);
+        dodgePressed |= Gdx.input.isKeyJustPressed(Input.Keys.SHIFT_LEFT);
+        jumpPressed |= Gdx.input.isKeyJustPressed(Input.Keys.UP) || Gdx.input.isKeyJustPressed(Input.Keys.W);
+    }
+
+    @Override
+    public boolean isLeftHeld() {
+        return Gdx.input.isKeyPressed(Input.Keys.LEFT) || Gdx.input.isKeyPressed(Input.Keys.A);
+    }
+
+    @Override
+    public boolean isRightHeld() {
+        return Gdx.input.isKeyPressed(Input.Keys.RIGHT) || Gdx.input.isKeyPressed(Input.Keys.D);
+    }
+
+    @Override
+    public boolean consumeJump() {
+        boolean pressed = jumpPressed;
+        jumpPressed = false;
+        return pressed;
+    }
+
+    @Override
+    public boolean consumeAttack() {
+        boolean pressed = attackPressed;
+        attackPressed = false;
+        return pressed;
+    }
+
+    @Override
+    public boolean consumeLightAttack() {
+        boolean pressed = lightAttackPressed;
+        lightAttackPressed = false;
+        return pressed;
+    }
+
+    @Override
+    public boolean consumeDodge() {
+        boolean pressed = dodgePressed;
+        dodgePressed = false;
+        return pressed;
+    }
+
+    @Override
+    public boolean consumeDebugDamage() {
+        boolean pressed = damagePressed;
+        damagePressed = false;
+        return pressed;
+    }
+}
@@ -1,24 +1,26 @@
 package entities;
 
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.graphics.g2d.SpriteBatch;
-import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
-import com.badlogic.gdx.math.Vector2;
-import com.badlogic.gdx.physics.box2d.*;
-
-import utils.GameConstants;
-
-
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.physics.box2d.Body;
-import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 
+// One box of level geometry. Several platforms can share a body; see StaticGeometryBuilder.
 public class Platform {
+    // Set on the batch once for all of them; see render
+    public static final Color COLOR = new Color(0, 1, 0, 1);
+
     private final Body body;
+    private final float x;
+    private final float y;
     private final float width;
     private final float height;
 
-    public Platform(Body body, float width, float height) {
+    // (x, y) is the box's centre in world units
+    public Platform(Body body, float x, float y, float width, float height) {
         this.body = body;
+        this.x = x;
+        this.y = y;
         this.width = width;
         this.height = height;
     }
@@ -27,7 +29,24 @@ public class Platform {
         return body;
     }
 
-    public void render(ShapeRenderer shapeRenderer) {
-        shapeRenderer.rect(body.getPosition().x - width / 2, body.getPosition().y - height / 2, width, height);
+    public float getX() {
+        return x;
+    }
+
+    public float getY() {
+        return y;
+    }
+
+    public float getWidth() {
+        return width;
+    }
+
+    public float getHeight() {
+        return height;
+    }
+
+    // Fills the box with the white region in whatever colour the batch has; see AssetManager.getWhiteRegion
+    public void render(Batch batch, TextureRegion white) {
+        batch.draw(white, x - width / 2, y - height / 2, width, height);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,25 @@
+package entities;
+
+/**
+ * Source of player commands. The keyboard is the normal source; scripted sources let the
+ * simulation run without a window.
+ */
+public interface PlayerInput {
+    // Called once per rendered frame, before the frame's ticks run
+    void poll();
+
+    boolean isLeftHeld();
+
+    boolean isRightHeld();
+
+    // Each of these returns true once per press and then resets
+    boolean consumeJump();
+
+    boolean consumeAttack();
+
+    boolean consumeLightAttack();
+
+    boolean consumeDodge();
+
+    boolean consumeDebugDamage();
+}
@@ -0,0 +1,390 @@
+package systems;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntitySystem;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.utils.ImmutableArray;
+import com.badlogic.gdx.ai.pfa.GraphPath;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Body;
+import components.AiComponent;
+import components.AnimationComponent;
+import components.BodyComponent;
+import components.FacingComponent;
+import components.HealthComponent;
+import components.HitboxComponent;
+import components.Mappers;
+import entities.Enemy;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import utils.FrameProfiler;
+import utils.GameConstants;
+import utils.GridNode;
+import utils.Log;
+
+/**
+ * Enemy behaviour: walk the navigation grid towards the target, and attack once there is no
+ * further to go and it is in range. Hurt enemies stand still until they recover.
+ *
+ * A tick has three steps. First the positions of every enemy and its target are copied into a
+ * snapshot. Then each enemy thinks: from the snapshot, its own components and the pathfinding
+ * caches it decides what to do, and writes that into its AiComponent.Intent. Last, the intents
+ * are carried out one enemy at a time: velocities and impulses, animation states, the swings of
+ * attacks and any path searches the cache couldn't answer. Thinking touches neither Box2D nor
+ * anything another enemy can see, so with enough enemies it is split into batches across a
+ * ForkJoinPool; everything else stays on the simulation thread.
+ */
+public class AiSystem extends EntitySystem {
+    public static final int PRIORITY = 2;
+
+    private static final float ATTACK_DURATION = 0.6f;
+    private static final float ATTACK_RANGE = 1f;
+    private static final float ATTACK_DAMAGE = 10f;
+    private static final float WALK_SPEED = 0.4f;
+    // A swipe covering the attack range in front, landing a third of the way into the attack
+    private static final HitboxComponent.Attack ATTACK = new HitboxComponent.Attack(ATTACK_RANGE / 2, 0,
+            ATTACK_RANGE / 2, Enemy.ENEMY_SIZE, ATTACK_DAMAGE, 0.2f, 0.35f);
+
+    private final Family family;
+    private final FrameProfiler profiler;
+    private ImmutableArray<Entity> entities;
+
+    // This tick's snapshot: x, y, target x, target y for each enemy, in the order of entities
+    private float[] snapshot = new float[0];
+    private float deltaTime;
+
+    // Null when thinking stays on the simulation thread
+    private ForkJoinPool pool;
+    private int threads;
+    // Reused every tick; grown as the enemy count needs
+    private Batch[] batches = new Batch[0];
+    private final Fork fork = new Fork();
+
+    public AiSystem(FrameProfiler profiler) {
+        super(PRIORITY);
+        this.family = Family.all(AiComponent.class, BodyComponent.class, HealthComponent.class, FacingComponent.class,
+                AnimationComponent.class, HitboxComponent.class).get();
+        this.profiler = profiler;
+        setThreads(GameConstants.AI_THREADS);
+    }
+
+    // Threads to think on, 0 for one per core. With one there is no pool at all.
+    public void setThreads(int threads) {
+        dispose();
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        if (this.threads > 1) {
+            pool = new ForkJoinPool(this.threads);
+        }
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    @Override
+    public void addedToEngine(Engine engine) {
+        entities = engine.getEntitiesFor(family);
+    }
+
+    @Override
+    public void update(float deltaTime) {
+        profiler.begin(FrameProfiler.Phase.ENEMIES);
+        int count = entities.size();
+        takeSnapshot(count);
+        this.deltaTime = deltaTime;
+
+        if (pool != null && count >= GameConstants.AI_PARALLEL_MIN_ENEMIES) {
+            thinkInParallel(count);
+        } else {
+            think(0, count);
+        }
+
+        for (int i = 0; i < count; i++) {
+            apply(entities.get(i), i);
+        }
+        profiler.end(FrameProfiler.Phase.ENEMIES);
+    }
+
+    private void takeSnapshot(int count) {
+        if (snapshot.length < count * 4) {
+            snapshot = new float[count * 4];
+        }
+        for (int i = 0; i < count; i++) {
+            Entity entity = entities.get(i);
+            AiComponent ai = Mappers.AI.get(entity);
+            Vector2 position = Mappers.BODY.get(entity).body.getPosition();
+            Vector2 target = Mappers.BODY.get(ai.target).body.getPosition();
+            snapshot[i * 4] = position.x;
+            snapshot[i * 4 + 1] = position.y;
+            snapshot[i * 4 + 2] = target.x;
+            snapshot[i * 4 + 3] = target.y;
+
+            // The shared flow field is only read while thinking, so it's brought up to date here
+            if (ai.navigationMode == Enemy.NavigationMode.FLOW_FIELD) {
+                ai.pathfinding.prepareFlowField(ai.pathfinding.getNodeAt(target.x, target.y));
+            }
+        }
+    }
+
+    private void thinkInParallel(int count) {
+        int size = GameConstants.AI_BATCH_SIZE;
+        int batchCount = (count + size - 1) / size;
+        if (batches.length < batchCount) {
+            Batch[] grown = new Batch[batchCount];
+            System.arraycopy(batches, 0, grown, 0, batches.length);
+            for (int b = batches.length; b < batchCount; b++) {
+                grown[b] = new Batch();
+            }
+            batches = grown;
+        }
+        for (int b = 0; b < batchCount; b++) {
+            batches[b].reinitialize();
+            batches[b].from = b * size;
+            batches[b].to = Math.min(count, (b + 1) * size);
+        }
+        fork.reinitialize();
+        fork.batchCount = batchCount;
+        pool.invoke(fork);
+    }
+
+    private void think(int from, int to) {
+        for (int i = from; i < to; i++) {
+            think(entities.get(i), i);
+        }
+    }
+
+    // Runs on any thread: reads the snapshot and writes nothing but this enemy's AiComponent
+    private void think(Entity entity, int i) {
+        AiComponent ai = Mappers.AI.get(entity);
+        HealthComponent health = Mappers.HEALTH.get(entity);
+        AiComponent.Intent intent = ai.intent;
+        intent.clear();
+
+        if (health.dead) {
+            intent.state = Enemy.State.DEAD;
+            return;
+        }
+
+        if (ai.attacking) {
+            ai.attackTimer += deltaTime;
+            if (ai.attackTimer >= ATTACK_DURATION) {
+                ai.attacking = false;
+                intent.state = Enemy.State.IDLE;
+                Log.debug("Attack finished, switching to IDLE state.");
+            }
+        }
+
+        if (health.hurt) {
+            intent.state = Enemy.State.HURT;
+            return;
+        }
+        if (Mappers.ANIMATION.get(entity).isState(Enemy.State.HURT)) {
+            intent.state = Enemy.State.IDLE;
+        }
+
+        if (!ai.attacking) {
+            followTarget(ai, i);
+        }
+    }
+
+    private void followTarget(AiComponent ai, int i) {
+        // Floored rather than cast, so cells left of the origin of a streamed level line up
+        int startX = MathUtils.floor(snapshot[i * 4]);
+        int startY = (int) snapshot[i * 4 + 1];
+        int endX = MathUtils.floor(snapshot[i * 4 + 2]);
+        int endY = (int) snapshot[i * 4 + 3];
+
+        GridNode startNode = ai.pathfinding.getNodeAt(startX, startY);
+        GridNode endNode = ai.pathfinding.getNodeAt(endX, endY);
+
+        // Debugging: Print start and end nodes
+        Log.debug("Enemy start node: ({}, {})", startX, startY);
+        Log.debug("Player end node: ({}, {})", endX, endY);
+
+        if (ai.navigationMode == Enemy.NavigationMode.FLOW_FIELD) {
+            steer(ai, ai.pathfinding.getPreparedFlowStep(startNode, endNode), i);
+            return;
+        }
+
+        updatePath(ai, startNode, endNode);
+        // Without the next leg there's nothing to steer by yet; apply() steers once it has it
+        if (ai.intent.request != AiComponent.Intent.REQUEST_LEG) {
+            steer(ai, nextWaypoint(ai), i);
+        }
+    }
+
+    private static GridNode nextWaypoint(AiComponent ai) {
+        return ai.path != null && ai.pathIndex + 1 < ai.path.getCount() ? ai.path.get(ai.pathIndex + 1) : null;
+    }
+
+    // Walk toward the next cell, or stop there and attack if the target is in range
+    private void steer(AiComponent ai, GridNode nextNode, int i) {
+        AiComponent.Intent intent = ai.intent;
+        int startX = MathUtils.floor(snapshot[i * 4]);
+        int startY = (int) snapshot[i * 4 + 1];
+
+        if (nextNode != null) {
+            int nextX = ai.pathfinding.getWorldX(nextNode);
+            float directionX = nextX - startX;
+            float directionY = nextNode.getY() - startY;
+            float length = (float) Math.sqrt(directionX * directionX + directionY * directionY);
+            if (length != 0) {
+                directionX /= length;
+                directionY /= length;
+            }
+            intent.walk = true;
+            intent.moveX = directionX * WALK_SPEED;
+            intent.moveY = directionY * WALK_SPEED;
+            intent.state = Enemy.State.WALKING;
+            // Jump if necessary
+            intent.jump = nextNode.getY() > startY;
+            Log.debug("Moving to next node: ({}, {})", nextX, nextNode.getY());
+        } else {
+            intent.stop = true;
+            float distanceToTarget = Vector2.dst(snapshot[i * 4], snapshot[i * 4 + 1], snapshot[i * 4 + 2],
+                    snapshot[i * 4 + 3]);
+            if (distanceToTarget <= ATTACK_RANGE) {  // Only attack if within range
+                ai.attacking = true;
+                ai.attackTimer = 0;
+                intent.attack = true;
+                intent.state = Enemy.State.ATTACKING;
+            }
+        }
+    }
+
+    // Only asks for a new path when the target's cell changes or we leave the current one.
+    // Whatever the cache can't answer is left in the intent for apply() to search for; until an
+    // answer arrives we keep the old path.
+    private void updatePath(AiComponent ai, GridNode startNode, GridNode endNode) {
+        if (ai.path != null && startNode != ai.currentCell && ai.pathIndex + 1 < ai.path.getCount()
+                && ai.path.get(ai.pathIndex + 1) == startNode) {
+            // Reached the next waypoint, keep following the same path
+            ai.pathIndex++;
+        }
+        ai.currentCell = startNode;
+
+        boolean onPath = ai.path != null && ai.pathIndex < ai.path.getCount() && ai.path.get(ai.pathIndex) == startNode;
+        // Hierarchical paths come a leg at a time; at the end of one, ask for the next
+        boolean legFinished = onPath && ai.pathIndex == ai.path.getCount() - 1 && startNode != endNode;
+        if (endNode == ai.pathGoal && (onPath || startNode == ai.pathStart) && !legFinished) {
+            return;
+        }
+
+        if (ai.navigationMode == Enemy.NavigationMode.HIERARCHICAL) {
+            ai.awaitingPath = false;
+            GraphPath<GridNode> leg = ai.pathfinding.getCachedLeg(startNode, endNode);
+            if (leg != null) {
+                ai.usePath(startNode, endNode, leg);
+            } else {
+                request(ai, AiComponent.Intent.REQUEST_LEG, startNode, endNode);
+            }
+            return;
+        }
+
+        // Already waiting on a search towards this goal
+        if (ai.awaitingPath && endNode == ai.requestedGoal) {
+            return;
+        }
+
+        ai.requestedGoal = endNode;
+        GraphPath<GridNode> cached = ai.pathfinding.getCachedPath(startNode, endNode);
+        ai.awaitingPath = cached == null;
+        if (cached != null) {
+            ai.usePath(startNode, endNode, cached);
+        } else {
+            request(ai, AiComponent.Intent.REQUEST_PATH, startNode, endNode);
+        }
+    }
+
+    private static void request(AiComponent ai, int request, GridNode start, GridNode goal) {
+        ai.intent.request = request;
+        ai.intent.requestStart = start;
+        ai.intent.requestGoal = goal;
+    }
+
+    // Simulation thread only: carries out what think() decided
+    private void apply(Entity entity, int i) {
+        AiComponent ai = Mappers.AI.get(entity);
+        AiComponent.Intent intent = ai.intent;
+
+        if (intent.request == AiComponent.Intent.REQUEST_PATH) {
+            // Searched in the background; the listener hears about it on a later update
+            GraphPath<GridNode> path = ai.pathfinding.requestPath(intent.requestStart, intent.requestGoal,
+                    ai.pathListener);
+            if (path != null) {
+                ai.awaitingPath = false;
+                ai.usePath(intent.requestStart, intent.requestGoal, path);
+            }
+        } else if (intent.request == AiComponent.Intent.REQUEST_LEG) {
+            ai.usePath(intent.requestStart, intent.requestGoal,
+                    ai.pathfinding.findHierarchicalPath(intent.requestStart, intent.requestGoal));
+            steer(ai, nextWaypoint(ai), i);
+        }
+
+        if (intent.state != null) {
+            Mappers.ANIMATION.get(entity).setState(intent.state);
+        }
+
+        Body body = Mappers.BODY.get(entity).body;
+        FacingComponent facing = Mappers.FACING.get(entity);
+        if (intent.walk) {
+            body.setLinearVelocity(intent.moveX, intent.moveY);
+            facing.left = intent.moveX < 0;
+            if (intent.jump) {
+                Vector2 center = body.getWorldCenter();
+                body.applyLinearImpulse(0, Enemy.JUMP_IMPULSE, center.x, center.y, true);
+                Log.debug("Jumping to next node.");
+            }
+        } else if (intent.stop) {
+            body.setLinearVelocity(0, 0);
+        }
+
+        if (intent.attack) {
+            Log.debug("Started attacking the player.");
+            // Turn to the target and swing; CombatSystem works out whether it lands
+            facing.left = snapshot[i * 4 + 2] < snapshot[i * 4];
+            Mappers.HITBOX.get(entity).start(ATTACK, facing.left);
+        }
+    }
+
+    // Stops the worker threads, if there are any
+    public void dispose() {
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
+        }
+    }
+
+    // Thinks about one batch of enemies
+    private final class Batch extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        int from;
+        int to;
+
+        @Override
+        protected void compute() {
+            think(from, to);
+        }
+    }
+
+    // Hands every batch but the first to the pool and works on that one itself
+    private final class Fork extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        int batchCount;
+
+        @Override
+        protected void compute() {
+            for (int b = 1; b < batchCount; b++) {
+                batches[b].fork();
+            }
+            batches[0].invoke();
+            for (int b = 1; b < batchCount; b++) {
+                batches[b].join();
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package systems;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.systems.IteratingSystem;
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import components.AnimationComponent;
+import components.FacingComponent;
+import components.Mappers;
+import utils.FrameProfiler;
+
+/**
+ * Advances every animation and picks the frame to draw, from the mirrored twin for entities
+ * facing left; runs last, once states and facings are settled.
+ */
+public class AnimationSystem extends IteratingSystem {
+    public static final int PRIORITY = 4;
+
+    private final FrameProfiler profiler;
+
+    public AnimationSystem(FrameProfiler profiler) {
+        super(Family.all(AnimationComponent.class).get(), PRIORITY);
+        this.profiler = profiler;
+    }
+
+    @Override
+    public void update(float deltaTime) {
+        profiler.begin(FrameProfiler.Phase.ANIMATION);
+        super.update(deltaTime);
+        profiler.end(FrameProfiler.Phase.ANIMATION);
+    }
+
+    @Override
+    protected void processEntity(Entity entity, float deltaTime) {
+        AnimationComponent animation = Mappers.ANIMATION.get(entity);
+        animation.time += deltaTime;
+        AnimationComponent.Clip clip = animation.getClip();
+        if (clip == null || clip.animation == null) {
+            animation.frame = null;
+            return;
+        }
+        FacingComponent facing = Mappers.FACING.get(entity);
+        Animation<TextureRegion> playing = facing != null && facing.left && clip.mirrored != null ? clip.mirrored
+                : clip.animation;
+        animation.frame = playing.getKeyFrame(animation.time, clip.looping);
+    }
+}
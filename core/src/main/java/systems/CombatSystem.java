@@ -0,0 +1,187 @@
+package systems;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntitySystem;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.utils.ImmutableArray;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+import components.BodyComponent;
+import components.HealthComponent;
+import components.HitboxComponent;
+import components.HurtboxComponent;
+import components.Mappers;
+import utils.FrameProfiler;
+import utils.GameConstants;
+import utils.Log;
+import utils.SpatialGrid;
+
+/**
+ * Works out who the attacks swung this tick hit, applies the damage queued this tick, runs the
+ * hurt and invincibility timers, and kills whatever reaches zero health. Runs after everything
+ * that can attack or deal damage.
+ *
+ * Every live hurtbox goes into a spatial grid, cleared and refilled once per tick. Each active
+ * hitbox then asks the grid what it overlaps, and the hits are collected and only dealt once
+ * all hitboxes have been checked, so the order attackers are processed in makes no difference.
+ */
+public class CombatSystem extends EntitySystem {
+    public static final int PRIORITY = 3;
+
+    private final FrameProfiler profiler;
+    private ImmutableArray<Entity> living;
+    private ImmutableArray<Entity> hurtboxes;
+    private ImmutableArray<Entity> attackers;
+
+    // Refilled from scratch every tick, so nothing in it ever needs moving
+    private final SpatialGrid<Entity> grid = new SpatialGrid<>(GameConstants.COMBAT_CELL_SIZE,
+            GameConstants.COMBAT_GRID_BUCKETS, false);
+    private final Array<Entity> found = new Array<>();
+    // Hits found this tick: who was hit, and how hard
+    private final Array<Entity> hitTargets = new Array<>();
+    private final FloatArray hitDamage = new FloatArray();
+
+    public CombatSystem(FrameProfiler profiler) {
+        super(PRIORITY);
+        this.profiler = profiler;
+    }
+
+    @Override
+    public void addedToEngine(Engine engine) {
+        living = engine.getEntitiesFor(Family.all(HealthComponent.class).get());
+        hurtboxes = engine.getEntitiesFor(Family.all(HurtboxComponent.class, BodyComponent.class,
+                HealthComponent.class).get());
+        attackers = engine.getEntitiesFor(Family.all(HitboxComponent.class, HurtboxComponent.class,
+                BodyComponent.class, HealthComponent.class).get());
+    }
+
+    @Override
+    public void update(float deltaTime) {
+        profiler.begin(FrameProfiler.Phase.COMBAT);
+        fillGrid();
+        for (int i = 0; i < attackers.size(); i++) {
+            swing(attackers.get(i), deltaTime);
+        }
+        dealHits();
+        for (int i = 0; i < living.size(); i++) {
+            updateHealth(living.get(i), deltaTime);
+        }
+        profiler.end(FrameProfiler.Phase.COMBAT);
+    }
+
+    // Dead and inactive bodies can't be hit
+    private void fillGrid() {
+        grid.clear();
+        for (int i = 0; i < hurtboxes.size(); i++) {
+            Entity entity = hurtboxes.get(i);
+            Body body = Mappers.BODY.get(entity).body;
+            if (Mappers.HEALTH.get(entity).dead || !body.isActive()) {
+                continue;
+            }
+            HurtboxComponent hurtbox = Mappers.HURTBOX.get(entity);
+            Vector2 position = body.getPosition();
+            grid.add(entity, position.x - hurtbox.halfWidth, position.y - hurtbox.halfHeight,
+                    position.x + hurtbox.halfWidth, position.y + hurtbox.halfHeight);
+        }
+    }
+
+    private void swing(Entity entity, float deltaTime) {
+        HitboxComponent hitbox = Mappers.HITBOX.get(entity);
+        HitboxComponent.Attack attack = hitbox.attack;
+        if (attack == null) {
+            return;
+        }
+        if (Mappers.HEALTH.get(entity).dead) {
+            hitbox.cancel();
+            return;
+        }
+
+        if (hitbox.time >= attack.activeFrom) {
+            Vector2 position = Mappers.BODY.get(entity).body.getPosition();
+            float x = position.x + (hitbox.left ? -attack.offsetX : attack.offsetX);
+            float y = position.y + attack.offsetY;
+            HurtboxComponent.Team team = Mappers.HURTBOX.get(entity).team;
+
+            found.clear();
+            grid.query(x - attack.halfWidth, y - attack.halfHeight, x + attack.halfWidth, y + attack.halfHeight, found);
+            for (int i = 0; i < found.size; i++) {
+                Entity target = found.get(i);
+                if (Mappers.HURTBOX.get(target).team == team || hitbox.struck.contains(target, true)) {
+                    continue;
+                }
+                hitbox.struck.add(target);
+                hitTargets.add(target);
+                hitDamage.add(attack.damage);
+            }
+        }
+
+        hitbox.time += deltaTime;
+        if (hitbox.time > attack.activeUntil) {
+            hitbox.cancel();
+        }
+    }
+
+    private void dealHits() {
+        for (int i = 0; i < hitTargets.size; i++) {
+            Mappers.HEALTH.get(hitTargets.get(i)).damage(hitDamage.get(i));
+        }
+        if (hitTargets.size > 0) {
+            Log.debug("{} hits this tick", hitTargets.size);
+        }
+        hitTargets.clear();
+        hitDamage.clear();
+    }
+
+    private void updateHealth(Entity entity, float deltaTime) {
+        HealthComponent health = Mappers.HEALTH.get(entity);
+        float damage = health.pendingDamage;
+        health.pendingDamage = 0;
+        if (health.dead) {
+            return;
+        }
+
+        if (health.hurt) {
+            health.hurtTimer += deltaTime;
+            if (health.hurtTimer >= health.hurtDuration) {
+                health.hurt = false;
+            }
+        }
+
+        if (health.invincible) {
+            health.invincibilityTimer += deltaTime;
+            if (health.invincibilityTimer >= health.invincibilityDuration) {
+                health.invincible = false;
+            }
+        }
+
+        if (damage > 0 && !health.invincible) {
+            applyDamage(entity, health, damage);
+        }
+    }
+
+    private void applyDamage(Entity entity, HealthComponent health, float damage) {
+        health.current = Math.max(0, health.current - damage);
+        if (health.bar != null) {
+            health.bar.setHealth(health.current);
+        }
+
+        if (health.current == 0) {
+            health.dead = true;
+            BodyComponent body = Mappers.BODY.get(entity);
+            if (body != null) {
+                // Disable physics interactions
+                body.body.setActive(false);
+            }
+        } else {
+            health.hurt = true;
+            health.hurtTimer = 0;
+            if (health.invincibilityDuration > 0) {
+                health.invincible = true;
+                health.invincibilityTimer = 0;
+            }
+        }
+    }
+}
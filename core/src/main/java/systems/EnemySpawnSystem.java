@@ -0,0 +1,157 @@
+package systems;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntityListener;
+import com.badlogic.ashley.core.EntitySystem;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.utils.ImmutableArray;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.utils.Pool;
+import components.AiComponent;
+import components.AnimationComponent;
+import components.HealthComponent;
+import components.Mappers;
+import entities.Enemy;
+import entities.Player;
+import utils.FrameProfiler;
+import utils.GameConstants;
+import utils.Log;
+import utils.PathfindingService;
+
+/**
+ * Brings enemies into the world and takes them out again. Enemies come from a pool, Box2D body
+ * included, and go back to it whenever they leave the engine, whether they died or were unloaded
+ * with their chunk, so once the pool has warmed up spawning creates nothing.
+ *
+ * Dead enemies are removed once their death animation has played. With waves on, each time no
+ * enemy is left alive the next, bigger wave drops in around the player after WAVE_DELAY.
+ */
+public class EnemySpawnSystem extends EntitySystem implements EntityListener {
+    public static final int PRIORITY = 5;
+
+    private static final Family ENEMIES = Family.all(AiComponent.class, HealthComponent.class, AnimationComponent.class).get();
+    // Gap between enemies dropped on the same side
+    private static final float WAVE_SPACING = Enemy.ENEMY_SIZE * 2 + 0.1f;
+
+    private final Player player;
+    private final PathfindingService pathfinding;
+    private final FrameProfiler profiler;
+    private final Pool<Enemy> pool;
+    private ImmutableArray<Entity> enemies;
+
+    private boolean waves;
+    private int wave;
+    private float waveTimer;
+
+    public EnemySpawnSystem(World world, Player player, PathfindingService pathfinding, FrameProfiler profiler) {
+        super(PRIORITY);
+        this.player = player;
+        this.pathfinding = pathfinding;
+        this.profiler = profiler;
+        pool = new Pool<Enemy>(16, GameConstants.ENEMY_POOL_SIZE) {
+            @Override
+            protected Enemy newObject() {
+                return new Enemy(world, player, pathfinding);
+            }
+
+            // The pool is full; this one's body won't be needed again
+            @Override
+            protected void discard(Enemy enemy) {
+                world.destroyBody(enemy.getBody());
+            }
+        };
+    }
+
+    @Override
+    public void addedToEngine(Engine engine) {
+        enemies = engine.getEntitiesFor(ENEMIES);
+        engine.addEntityListener(ENEMIES, this);
+    }
+
+    @Override
+    public void removedFromEngine(Engine engine) {
+        engine.removeEntityListener(this);
+    }
+
+    public Enemy spawn(float x, float y) {
+        Enemy enemy = pool.obtain();
+        enemy.spawn(x, y);
+        getEngine().addEntity(enemy);
+        return enemy;
+    }
+
+    // During an engine update the enemy leaves once the current system is done, so it is safe to
+    // call while iterating; it goes back to the pool when it has actually left
+    public void despawn(Entity enemy) {
+        getEngine().removeEntity(enemy);
+    }
+
+    @Override
+    public void entityAdded(Entity entity) {
+    }
+
+    @Override
+    public void entityRemoved(Entity entity) {
+        pool.free((Enemy) entity);
+    }
+
+    @Override
+    public void update(float deltaTime) {
+        profiler.begin(FrameProfiler.Phase.SPAWNING);
+        int alive = 0;
+        for (int i = 0; i < enemies.size(); i++) {
+            Entity enemy = enemies.get(i);
+            if (!Mappers.HEALTH.get(enemy).dead) {
+                alive++;
+                continue;
+            }
+            AnimationComponent animation = Mappers.ANIMATION.get(enemy);
+            if (animation.isState(Enemy.State.DEAD) && animation.isFinished()) {
+                despawn(enemy);
+            }
+        }
+
+        if (waves && alive == 0) {
+            waveTimer += deltaTime;
+            if (waveTimer >= GameConstants.WAVE_DELAY) {
+                waveTimer = 0;
+                spawnWave();
+            }
+        }
+        profiler.end(FrameProfiler.Phase.SPAWNING);
+    }
+
+    // Alternates sides of the player, each pair further out, kept inside the navigation grid
+    private void spawnWave() {
+        int size = Math.min(GameConstants.WAVE_FIRST_SIZE + wave * GameConstants.WAVE_GROWTH,
+                GameConstants.WAVE_MAX_SIZE);
+        wave++;
+        float playerX = player.getBody().getPosition().x;
+        float minX = pathfinding.getOriginX() + 0.5f;
+        float maxX = pathfinding.getOriginX() + pathfinding.getGraph().getWidth() - 0.5f;
+        for (int i = 0; i < size; i++) {
+            float side = i % 2 == 0 ? 1 : -1;
+            float x = playerX + side * (GameConstants.WAVE_SPAWN_DISTANCE + (i / 2) * WAVE_SPACING);
+            spawn(MathUtils.clamp(x, minX, maxX), GameConstants.WAVE_SPAWN_HEIGHT);
+        }
+        Log.info("Wave {}: {} enemies", wave, size);
+    }
+
+    // Starts (or stops) sending waves whenever the area is clear
+    public void setWaves(boolean waves) {
+        this.waves = waves;
+        waveTimer = 0;
+    }
+
+    // Waves sent so far
+    public int getWave() {
+        return wave;
+    }
+
+    // Enemies waiting in the pool for their next spawn
+    public int getPooledCount() {
+        return pool.getFree();
+    }
+}
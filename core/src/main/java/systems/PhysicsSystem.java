@@ -0,0 +1,38 @@
+package systems;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.systems.IteratingSystem;
+import com.badlogic.gdx.physics.box2d.World;
+import components.BodyComponent;
+import components.Mappers;
+import utils.FrameProfiler;
+import utils.GameConstants;
+
+/** Steps the Box2D world, first remembering where every body was for interpolated drawing. */
+public class PhysicsSystem extends IteratingSystem {
+    public static final int PRIORITY = 0;
+
+    private final World world;
+    private final FrameProfiler profiler;
+
+    public PhysicsSystem(World world, FrameProfiler profiler) {
+        super(Family.all(BodyComponent.class).get(), PRIORITY);
+        this.world = world;
+        this.profiler = profiler;
+    }
+
+    @Override
+    public void update(float deltaTime) {
+        profiler.begin(FrameProfiler.Phase.PHYSICS);
+        super.update(deltaTime);
+        world.step(deltaTime, GameConstants.VELOCITY_ITERATIONS, GameConstants.POSITION_ITERATIONS);
+        profiler.end(FrameProfiler.Phase.PHYSICS);
+    }
+
+    @Override
+    protected void processEntity(Entity entity, float deltaTime) {
+        BodyComponent body = Mappers.BODY.get(entity);
+        body.previousPosition.set(body.body.getPosition());
+    }
+}
@@ -0,0 +1,264 @@
+package systems;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.systems.IteratingSystem;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Body;
+import components.AnimationComponent;
+import components.BodyComponent;
+import components.FacingComponent;
+import components.HealthComponent;
+import components.HitboxComponent;
+import components.Mappers;
+import components.PlayerComponent;
+import entities.Player;
+import utils.FrameProfiler;
+import utils.GameConstants;
+import utils.Log;
+
+/** Turns the player's input into movement, jumps, dodges and attacks, and runs their timers. */
+public class PlayerSystem extends IteratingSystem {
+    public static final int PRIORITY = 1;
+
+    private static final float ATTACK_DURATION = 0.25f;
+    private static final float ATTACK_RANGE = 1f;
+    private static final float ATTACK_DAMAGE = 25f;
+
+    private static final float LIGHT_ATTACK_RANGE = 0.8f;
+    private static final float LIGHT_ATTACK_DURATION = 0.3f;
+    private static final float LIGHT_ATTACK_DAMAGE = 15f;
+    private static final float COMBO_WINDOW = 0.5f;
+
+    private static final float DODGE_DURATION = 0.6f;
+    private static final float DODGE_COOLDOWN = 1.2f;
+    private static final float DODGE_SPEED = 3f;
+
+    private static final float DEBUG_DAMAGE = 10;
+
+    // The boxes the old AABB queries used, ahead of the player at the height of its body
+    private static final HitboxComponent.Attack HEAVY_ATTACK = new HitboxComponent.Attack(ATTACK_RANGE, 0,
+            ATTACK_RANGE / 2, Player.PLAYER_SIZE / 2, ATTACK_DAMAGE, 0.05f, 0.2f);
+    private static final HitboxComponent.Attack LIGHT_ATTACK = new HitboxComponent.Attack(LIGHT_ATTACK_RANGE, 0,
+            LIGHT_ATTACK_RANGE / 2, Player.PLAYER_SIZE / 2, LIGHT_ATTACK_DAMAGE, 0.05f, 0.2f);
+
+    private final FrameProfiler profiler;
+
+    public PlayerSystem(FrameProfiler profiler) {
+        super(Family.all(PlayerComponent.class, BodyComponent.class, HealthComponent.class, FacingComponent.class,
+                AnimationComponent.class, HitboxComponent.class).get(), PRIORITY);
+        this.profiler = profiler;
+    }
+
+    @Override
+    public void update(float deltaTime) {
+        profiler.begin(FrameProfiler.Phase.PLAYER);
+        super.update(deltaTime);
+        profiler.end(FrameProfiler.Phase.PLAYER);
+    }
+
+    @Override
+    protected void processEntity(Entity entity, float deltaTime) {
+        PlayerComponent player = Mappers.PLAYER.get(entity);
+        Body body = Mappers.BODY.get(entity).body;
+        HealthComponent health = Mappers.HEALTH.get(entity);
+        FacingComponent facing = Mappers.FACING.get(entity);
+        AnimationComponent animation = Mappers.ANIMATION.get(entity);
+        HitboxComponent hitbox = Mappers.HITBOX.get(entity);
+
+        if (health.dead) {
+            animation.setState(Player.State.DYING);
+            return;
+        }
+
+        Vector2 vel = body.getLinearVelocity();
+        handleInput(player, body, health, facing, animation, hitbox);
+
+        if (player.lightAttacking) {
+            player.lightAttackTimer += deltaTime;
+            if (player.lightAttackTimer >= LIGHT_ATTACK_DURATION) {
+                player.lightAttacking = false;
+
+                if (player.lightAttackCombo == 1) {
+                    player.comboTimer = 0;
+                } else if (player.lightAttackCombo == 2) {
+                    player.lightAttackCombo = 0;
+                }
+
+                if (player.inAir) {
+                    animation.setState(vel.y < 0 ? Player.State.FALLING : Player.State.JUMPING);
+                } else {
+                    animation.setState(Player.State.IDLE);
+                }
+            }
+        }
+
+        if (player.lightAttackCombo == 1 && !player.lightAttacking) {
+            player.comboTimer += deltaTime;
+            if (player.comboTimer >= COMBO_WINDOW) {
+                player.lightAttackCombo = 0;
+            }
+        }
+
+        if (player.dodging) {
+            player.dodgeTimer += deltaTime;
+            if (player.dodgeTimer >= DODGE_DURATION) {
+                player.dodging = false;
+                animation.setState(player.inAir ? Player.State.FALLING : Player.State.IDLE);
+                float endSpeed = vel.x * 0.5f;
+                body.setLinearVelocity(endSpeed, vel.y);
+            } else {
+                float progress = player.dodgeTimer / DODGE_DURATION;
+                float currentDodgeSpeed = DODGE_SPEED * (1 - progress);
+                float direction = facing.left ? -1 : 1;
+                body.setLinearVelocity(currentDodgeSpeed * direction, vel.y);
+            }
+        }
+
+        if (!player.canDodge) {
+            player.dodgeCooldownTimer += deltaTime;
+            if (player.dodgeCooldownTimer >= DODGE_COOLDOWN) {
+                player.canDodge = true;
+                player.dodgeCooldownTimer = 0;
+            }
+        }
+
+        if (player.attacking) {
+            player.attackTimer += deltaTime;
+            if (player.attackTimer >= ATTACK_DURATION) {
+                player.attacking = false;
+                animation.setState(player.inAir ? Player.State.FALLING : Player.State.IDLE);
+            }
+        }
+
+        if (!player.lightAttacking && !player.attacking && !player.dodging) {
+            if (Math.abs(vel.y) > 0.1f) {
+                animation.setState(vel.y < 0 ? Player.State.FALLING : Player.State.JUMPING);
+                player.inAir = true;
+            } else {
+                player.inAir = false;
+                if (Math.abs(vel.x) > 0.1f) {
+                    animation.setState(Player.State.RUNNING);
+                } else {
+                    // Standing still is when a hit shows
+                    animation.setState(health.hurt ? Player.State.HURT : Player.State.IDLE);
+                }
+            }
+        }
+    }
+
+    private void handleInput(PlayerComponent player, Body body, HealthComponent health, FacingComponent facing,
+            AnimationComponent animation, HitboxComponent hitbox) {
+        // Consume presses every tick so ones made mid-dodge don't fire afterwards
+        boolean lightAttack = player.input.consumeLightAttack();
+        boolean attack = player.input.consumeAttack();
+        boolean damage = player.input.consumeDebugDamage();
+        boolean dodge = player.input.consumeDodge();
+        boolean jump = player.input.consumeJump();
+
+        if (player.dodging) return;
+
+        Vector2 vel = body.getLinearVelocity();
+
+        // Handle light attack (R key)
+        if (lightAttack) {
+            if (!player.lightAttacking && !player.attacking) {
+                performLightAttack(player, facing, animation, hitbox);
+            } else if (player.lightAttacking && player.lightAttackCombo == 1 && player.comboTimer < COMBO_WINDOW) {
+                performLightAttack(player, facing, animation, hitbox);
+            }
+        }
+
+        // Handle heavy attack (E key)
+        if (attack && !player.lightAttacking) {
+            startAttack(player, facing, animation, hitbox);
+        }
+
+        if (damage) {
+            health.damage(DEBUG_DAMAGE); // Take 10 damage when H key is pressed
+        }
+
+        // Handle dodge
+        if (dodge && player.canDodge) {
+            startDodge(player, body, facing, animation);
+        }
+
+        // Movement is always allowed unless dodging
+        if (player.input.isLeftHeld()) {
+            body.setLinearVelocity(-GameConstants.PLAYER_SPEED, vel.y);
+            facing.left = true;
+        } else if (player.input.isRightHeld()) {
+            body.setLinearVelocity(GameConstants.PLAYER_SPEED, vel.y);
+            facing.left = false;
+        } else {
+            body.setLinearVelocity(0, vel.y);
+        }
+
+        // Handle jumping
+        if (jump && player.canJump && player.footContacts > 0) {
+            body.setLinearVelocity(vel.x, 0);
+            Vector2 center = body.getWorldCenter();
+            body.applyLinearImpulse(0, GameConstants.JUMP_FORCE, center.x, center.y, true);
+            player.canJump = false;
+            player.inAir = true;
+        }
+    }
+
+    private void startDodge(PlayerComponent player, Body body, FacingComponent facing, AnimationComponent animation) {
+        if (!player.dodging && player.canDodge && !player.attacking) {
+            Log.debug("Starting dodge!");
+            player.dodging = true;
+            player.canDodge = false;
+            player.dodgeTimer = 0;
+            animation.setState(Player.State.DODGING);
+
+            // Apply stronger dodge force
+            float dodgeVelocityX = facing.left ? -DODGE_SPEED : DODGE_SPEED;
+            body.setLinearVelocity(dodgeVelocityX, body.getLinearVelocity().y * 0.5f); // Reduce vertical velocity
+        }
+    }
+
+    private void performLightAttack(PlayerComponent player, FacingComponent facing, AnimationComponent animation,
+            HitboxComponent hitbox) {
+        if (player.inAir) {
+            performAirAttack(player, facing, animation, hitbox);
+            return;
+        }
+
+        player.lightAttacking = true;
+        player.lightAttackTimer = 0;
+
+        if (player.lightAttackCombo == 0) {
+            player.lightAttackCombo = 1;
+            player.comboTimer = 0;
+        } else if (player.lightAttackCombo == 1) {
+            player.lightAttackCombo = 2;
+        }
+
+        animation.setState(player.lightAttackCombo == 2 ? Player.State.LIGHT_ATTACKING_SECOND
+                : Player.State.LIGHT_ATTACKING);
+        // Each swing of the combo can hit the same enemy again
+        hitbox.start(LIGHT_ATTACK, facing.left);
+    }
+
+    private void performAirAttack(PlayerComponent player, FacingComponent facing, AnimationComponent animation,
+            HitboxComponent hitbox) {
+        if (!player.attacking) {
+            player.attacking = true;
+            player.attackTimer = 0;
+            animation.setState(Player.State.AIR_ATTACKING);
+            hitbox.start(HEAVY_ATTACK, facing.left);
+        }
+    }
+
+    private void startAttack(PlayerComponent player, FacingComponent facing, AnimationComponent animation,
+            HitboxComponent hitbox) {
+        if (!player.attacking && !player.dodging) {
+            Log.debug("Starting attack!");
+            player.attacking = true;
+            player.attackTimer = 0;
+            animation.setState(player.inAir ? Player.State.AIR_ATTACKING : Player.State.ATTACKING);
+            hitbox.start(HEAVY_ATTACK, facing.left);
+        }
+    }
+}
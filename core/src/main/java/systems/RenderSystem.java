@@ -0,0 +1,124 @@
+package systems;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntityListener;
+import com.badlogic.ashley.core.EntitySystem;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.utils.ImmutableArray;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectIntMap;
+import components.AnimationComponent;
+import components.BodyComponent;
+import components.Mappers;
+import java.util.Comparator;
+import utils.GameConstants;
+import utils.SpatialGrid;
+
+/**
+ * Draws the current frame of each animated entity the camera can see, at its interpolated
+ * position, lowest layer first. Frames come already mirrored for entities facing left (see
+ * AssetManager.getMirrored), so drawing is a plain rectangle per entity and allocates nothing.
+ * Engine.update() skips it: the screen calls render() inside its own batch.begin() / end().
+ *
+ * Every entity's sprite rectangle is kept in a SpatialGrid, moved as the entity does, and the
+ * view is looked up there, so what goes to the batch depends on what's on screen rather than on
+ * how many entities there are.
+ */
+public class RenderSystem extends EntitySystem implements EntityListener {
+    public static final int PRIORITY = 6;
+
+    private static final Family FAMILY = Family.all(AnimationComponent.class, BodyComponent.class).get();
+    private static final int NO_HANDLE = -1;
+
+    private final Batch batch;
+    private final SpatialGrid<Entity> grid = new SpatialGrid<>(GameConstants.CULLING_CELL_SIZE,
+            GameConstants.CULLING_GRID_BUCKETS);
+    private final ObjectIntMap<Entity> handles = new ObjectIntMap<>();
+    private final Array<Entity> visible = new Array<>();
+    private final Comparator<Entity> byLayer = (a, b) -> Integer.compare(Mappers.ANIMATION.get(a).layer,
+            Mappers.ANIMATION.get(b).layer);
+    private final Vector2 position = new Vector2();
+    private ImmutableArray<Entity> entities;
+    private float alpha;
+
+    public RenderSystem(Batch batch) {
+        super(PRIORITY);
+        this.batch = batch;
+        setProcessing(false);
+    }
+
+    @Override
+    public void addedToEngine(Engine engine) {
+        entities = engine.getEntitiesFor(FAMILY);
+        engine.addEntityListener(FAMILY, this);
+        for (int i = 0; i < entities.size(); i++) {
+            entityAdded(entities.get(i));
+        }
+    }
+
+    @Override
+    public void removedFromEngine(Engine engine) {
+        engine.removeEntityListener(this);
+        for (int i = 0; i < entities.size(); i++) {
+            entityRemoved(entities.get(i));
+        }
+    }
+
+    // Filed where its body is until the first render() says where its sprite is
+    @Override
+    public void entityAdded(Entity entity) {
+        Vector2 at = Mappers.BODY.get(entity).body.getPosition();
+        handles.put(entity, grid.add(entity, at.x, at.y, at.x, at.y));
+    }
+
+    @Override
+    public void entityRemoved(Entity entity) {
+        int handle = handles.remove(entity, NO_HANDLE);
+        if (handle != NO_HANDLE) {
+            grid.remove(handle);
+        }
+    }
+
+    // alpha is how far the frame is between the last tick and the next, as FixedTimestep reports it;
+    // the box is the part of the world the camera shows
+    public void render(float alpha, float minX, float minY, float maxX, float maxY) {
+        this.alpha = alpha;
+        for (int i = 0; i < entities.size(); i++) {
+            move(entities.get(i));
+        }
+
+        visible.clear();
+        grid.query(minX, minY, maxX, maxY, visible);
+        visible.sort(byLayer);
+        for (int i = 0; i < visible.size; i++) {
+            draw(visible.get(i));
+        }
+    }
+
+    // Refiles the sprite's rectangle for this frame; most frames it stays in the same cells
+    private void move(Entity entity) {
+        AnimationComponent animation = Mappers.ANIMATION.get(entity);
+        AnimationComponent.Clip clip = animation.getClip();
+        if (animation.frame == null || clip == null) {
+            return;
+        }
+        Mappers.BODY.get(entity).interpolate(alpha, position);
+        float left = position.x - clip.width / 2;
+        float bottom = position.y - clip.height / 2 - clip.offsetY;
+        grid.update(handles.get(entity, NO_HANDLE), left, bottom, left + clip.width, bottom + clip.height);
+    }
+
+    private void draw(Entity entity) {
+        AnimationComponent animation = Mappers.ANIMATION.get(entity);
+        if (animation.frame == null) {
+            return;
+        }
+        AnimationComponent.Clip clip = animation.getClip();
+        Mappers.BODY.get(entity).interpolate(alpha, position);
+        batch.draw(animation.frame, position.x - clip.width / 2, position.y - clip.height / 2 - clip.offsetY,
+                clip.width, clip.height);
+    }
+}
@@ -1,29 +1,50 @@
 package utils;
 
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.loaders.TextureLoader;
+import com.badlogic.gdx.graphics.Pixmap;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.ObjectMap;
 
+/**
+ * Game-wide access to the loaded textures and the animations built from them. Loading goes
+ * through libGDX's own AssetManager, so images are decoded on its worker thread while update()
+ * is called from the render loop, and every file is loaded once and reference counted however
+ * many times it's queued.
+ *
+ * Every animation also gets a mirrored twin, its frames flipped horizontally, built once at load
+ * time so that left-facing sprites are drawn from ready-made regions; see getMirrored.
+ *
+ * The atlas also carries a single white pixel, which flat shapes (platforms, the health bar) are
+ * drawn from, tinted, so they go through the same SpriteBatch and texture as the sprites; see
+ * getWhiteRegion.
+ */
 public class AssetManager {
-    // Textures
-    private static Texture catIdleTexture;
-    private static Texture catRunTexture;
-    private static Texture catJumpTexture;
-    private static Texture catFallTexture;
-    private static Texture catAttackTexture;
-    private static Texture catAirAttackTexture;
-    private static Texture catDodgeTexture;
-    private static Texture catLightAttackTexture;
-    private static Texture playerHurtTexture;
-    private static Texture playerDeathTexture;
-    
-    private static Texture enemyIdleTexture;
-    private static Texture enemyAttackTexture;
-    private static Texture enemyHurtTexture;
-    private static Texture enemyDeathTexture;
-    private static Texture enemyWalkTexture;
-    
+    // Background layers, in the assets root; they scroll by wrapping sideways, see AnimatedBackground
+    private static final String[] BACKGROUND_LAYERS = { "1.png", "2.png", "3.png", "4.png", "5.png" };
+    // Character sheets under sprites/; only loaded one by one when the atlas hasn't been packed
+    private static final String[] SHEETS = {
+        "player/Cat_Idle", "player/Cat_Run", "player/Cat_Jump", "player/Cat_Fall", "player/Cat_Attack",
+        "player/Cat_Dodge", "player/Cat_AirAttack", "player/Cat_LightAttack", "player/Cat_Hurt", "player/Cat_Death",
+        "enemy/Pink_Monster_Idle", "enemy/Pink_Monster_Attack", "enemy/Pink_Monster_Hurt",
+        "enemy/Pink_Monster_Death", "enemy/Pink_Monster_Run"
+    };
+
+    private static com.badlogic.gdx.assets.AssetManager manager;
+    // Every character sheet lives in this atlas, so players and enemies draw from the same texture
+    private static TextureAtlas spriteAtlas;
+    private static boolean useAtlas;
+    private static TextureRegion whiteRegion;
+    // Only made when there's no atlas to take the white pixel from
+    private static Texture whiteTexture;
+    private static boolean ready;
+    // Set when building the animations went wrong; loading isn't tried again until dispose()
+    private static boolean failed;
+    private static long queuedAt;
+
     public static Texture backgroundLayer1;
     public static Texture backgroundLayer2;
     public static Texture backgroundLayer3;
@@ -50,83 +71,156 @@ public class AssetManager {
     private static Animation<TextureRegion> enemyDeathAnimation;
     private static Animation<TextureRegion> enemyWalkAnimation;
 
+    // Each animation above to its mirrored twin
+    private static final ObjectMap<Animation<TextureRegion>, Animation<TextureRegion>> mirrored = new ObjectMap<>();
+
+    // Queues everything the game needs; safe to call again, nothing is loaded twice
+    public static void queueAssets() {
+        if (manager != null) {
+            return;
+        }
+        manager = new com.badlogic.gdx.assets.AssetManager();
+        queuedAt = System.nanoTime();
+
+        useAtlas = Gdx.files.internal(GameConstants.SPRITE_ATLAS).exists();
+        if (useAtlas) {
+            manager.load(GameConstants.SPRITE_ATLAS, TextureAtlas.class);
+        } else {
+            Log.warn("{} not found, loading sprite sheets separately; run the packTextures task to build it",
+                    GameConstants.SPRITE_ATLAS);
+            for (String sheet : SHEETS) {
+                manager.load(sheetPath(sheet), Texture.class);
+            }
+        }
+        TextureLoader.TextureParameter repeat = new TextureLoader.TextureParameter();
+        repeat.wrapU = Texture.TextureWrap.Repeat;
+        for (String layer : BACKGROUND_LAYERS) {
+            manager.load(layer, Texture.class, repeat);
+        }
+    }
+
+    // Gives loading up to the given time on this thread and returns true once everything is ready;
+    // after a failure it never is, and the loading screen stays up
+    public static boolean update(int millis) {
+        queueAssets();
+        if (!ready && !failed && manager.update(millis)) {
+            finishLoading();
+        }
+        return ready;
+    }
+
+    // Loads whatever is still outstanding, blocking until it's done
     public static void loadAssets() {
-        try {
-            // Load textures
-            catIdleTexture = new Texture(Gdx.files.internal("sprites/player/Cat_Idle.png"));
-            catRunTexture = new Texture(Gdx.files.internal("sprites/player/Cat_Run.png"));
-            catJumpTexture = new Texture(Gdx.files.internal("sprites/player/Cat_Jump.png"));
-            catFallTexture = new Texture(Gdx.files.internal("sprites/player/Cat_Fall.png"));
-            catAttackTexture = new Texture(Gdx.files.internal("sprites/player/Cat_Attack.png"));
-            catDodgeTexture = new Texture(Gdx.files.internal("sprites/player/Cat_Dodge.png"));
-            catAirAttackTexture = new Texture(Gdx.files.internal("sprites/player/Cat_AirAttack.png"));
-            catLightAttackTexture = new Texture(Gdx.files.internal("sprites/player/Cat_LightAttack.png"));
-            playerHurtTexture = new Texture(Gdx.files.internal("sprites/player/Cat_Hurt.png"));
-            playerDeathTexture = new Texture(Gdx.files.internal("sprites/player/Cat_Death.png"));
-            
-            backgroundLayer1 = new Texture(Gdx.files.internal("1.png"));
-            backgroundLayer2 = new Texture(Gdx.files.internal("2.png"));
-            backgroundLayer3 = new Texture(Gdx.files.internal("3.png"));
-            backgroundLayer4 = new Texture(Gdx.files.internal("4.png"));
-            backgroundLayer5 = new Texture(Gdx.files.internal("5.png"));
-            
-            enemyIdleTexture = new Texture(Gdx.files.internal("sprites/enemy/Pink_Monster_Idle.png"));
-            enemyAttackTexture = new Texture(Gdx.files.internal("sprites/enemy/Pink_Monster_Attack.png"));
-            enemyHurtTexture = new Texture(Gdx.files.internal("sprites/enemy/Pink_Monster_Hurt.png"));
-            enemyDeathTexture = new Texture(Gdx.files.internal("sprites/enemy/Pink_Monster_Death.png"));
-            enemyWalkTexture = new Texture(Gdx.files.internal("sprites/enemy/Pink_Monster_Run.png"));
-            
-            
-            
-
-            // Create animations
-            TextureRegion[][] tmp = TextureRegion.split(
-                catLightAttackTexture,
-                catLightAttackTexture.getWidth() / 10,
-                catLightAttackTexture.getHeight()
-            );
-
-            // Create first attack animation (6 frames)
-            TextureRegion[] firstAttackFrames = new TextureRegion[6];
-            System.arraycopy(tmp[0], 0, firstAttackFrames, 0, 6);
-            catLightAttackFirstAnimation = new Animation<>(0.08f, firstAttackFrames);
-
-            // Create second attack animation (4 frames)
-            TextureRegion[] secondAttackFrames = new TextureRegion[4];
-            System.arraycopy(tmp[0], 6, secondAttackFrames, 0, 4);
-            catLightAttackSecondAnimation = new Animation<>(0.08f, secondAttackFrames);
-
-            catIdleAnimation = createAnimation(catIdleTexture, 8, 1, GameConstants.FRAME_DURATION);
-            catRunAnimation = createAnimation(catRunTexture, 10, 1, GameConstants.FRAME_DURATION);
-            catJumpAnimation = createAnimation(catJumpTexture, 4, 1, GameConstants.FRAME_DURATION);
-            catFallAnimation = createAnimation(catFallTexture, 4, 1, GameConstants.FRAME_DURATION);
-            catAttackAnimation = createAnimation(catAttackTexture, 6, 1, 0.13f);
-            catDodgeAnimation = createAnimation(catDodgeTexture, 8, 1, 0.075f);
-            catAirAttackAnimation = createAnimation(catAirAttackTexture, 6, 1, 0.13f);
-            
-            enemyIdleAnimation = createAnimation(enemyIdleTexture, 4, 1, 0.1f);
-            enemyAttackAnimation = createAnimation(enemyAttackTexture, 4, 1, 0.1f);
-            enemyHurtAnimation = createAnimation(enemyHurtTexture, 4, 1, 0.1f);
-            enemyDeathAnimation = createAnimation(enemyDeathTexture, 9, 1, 0.1f);
-            enemyWalkAnimation = createAnimation(enemyWalkTexture, 6, 1, 0.1f);
-
-            
-            
-            playerHurtAnimation = createAnimation(playerHurtTexture, 4, 1, 0.1f);
-            playerDeathAnimation = createAnimation(playerDeathTexture, 9, 1, 0.2f);
+        queueAssets();
+        if (!ready && !failed) {
+            manager.finishLoading();
+            finishLoading();
+        }
+    }
 
+    public static boolean isLoaded() {
+        return ready;
+    }
+
+    // 0 to 1
+    public static float getProgress() {
+        return ready ? 1 : manager == null ? 0 : manager.getProgress();
+    }
+
+    private static void finishLoading() {
+        try {
+            if (useAtlas) {
+                spriteAtlas = manager.get(GameConstants.SPRITE_ATLAS, TextureAtlas.class);
+            }
+            backgroundLayer1 = manager.get(BACKGROUND_LAYERS[0], Texture.class);
+            backgroundLayer2 = manager.get(BACKGROUND_LAYERS[1], Texture.class);
+            backgroundLayer3 = manager.get(BACKGROUND_LAYERS[2], Texture.class);
+            backgroundLayer4 = manager.get(BACKGROUND_LAYERS[3], Texture.class);
+            backgroundLayer5 = manager.get(BACKGROUND_LAYERS[4], Texture.class);
+            createAnimations();
+            whiteRegion = createWhiteRegion();
         } catch (Exception e) {
-            System.err.println("Error loading assets: " + e.getMessage());
-            e.printStackTrace();
+            Log.error("Error loading assets", e);
+            failed = true;
+            return;
         }
+        ready = true;
+        Log.info("Assets loaded in {} ms", (int) ((System.nanoTime() - queuedAt) / 1000000));
     }
 
-    private static Animation<TextureRegion> createAnimation(Texture texture, int cols, int rows, float frameDuration) {
-        TextureRegion[][] tmp = TextureRegion.split(
-            texture, 
-            texture.getWidth() / cols, 
-            texture.getHeight() / rows
-        );
+    private static void createAnimations() {
+        // Create animations
+        TextureRegion[][] tmp = splitSheet(findSheet("player/Cat_LightAttack"), 10, 1);
+
+        // Create first attack animation (6 frames)
+        TextureRegion[] firstAttackFrames = new TextureRegion[6];
+        System.arraycopy(tmp[0], 0, firstAttackFrames, 0, 6);
+        catLightAttackFirstAnimation = withMirror(new Animation<>(0.08f, firstAttackFrames));
+
+        // Create second attack animation (4 frames)
+        TextureRegion[] secondAttackFrames = new TextureRegion[4];
+        System.arraycopy(tmp[0], 6, secondAttackFrames, 0, 4);
+        catLightAttackSecondAnimation = withMirror(new Animation<>(0.08f, secondAttackFrames));
+
+        catIdleAnimation = createAnimation("player/Cat_Idle", 8, 1, GameConstants.FRAME_DURATION);
+        catRunAnimation = createAnimation("player/Cat_Run", 10, 1, GameConstants.FRAME_DURATION);
+        catJumpAnimation = createAnimation("player/Cat_Jump", 4, 1, GameConstants.FRAME_DURATION);
+        catFallAnimation = createAnimation("player/Cat_Fall", 4, 1, GameConstants.FRAME_DURATION);
+        catAttackAnimation = createAnimation("player/Cat_Attack", 6, 1, 0.13f);
+        catDodgeAnimation = createAnimation("player/Cat_Dodge", 8, 1, 0.075f);
+        catAirAttackAnimation = createAnimation("player/Cat_AirAttack", 6, 1, 0.13f);
+
+        enemyIdleAnimation = createAnimation("enemy/Pink_Monster_Idle", 4, 1, 0.1f);
+        enemyAttackAnimation = createAnimation("enemy/Pink_Monster_Attack", 4, 1, 0.1f);
+        enemyHurtAnimation = createAnimation("enemy/Pink_Monster_Hurt", 4, 1, 0.1f);
+        enemyDeathAnimation = createAnimation("enemy/Pink_Monster_Death", 9, 1, 0.1f);
+        enemyWalkAnimation = createAnimation("enemy/Pink_Monster_Run", 6, 1, 0.1f);
+
+        playerHurtAnimation = createAnimation("player/Cat_Hurt", 4, 1, 0.1f);
+        playerDeathAnimation = createAnimation("player/Cat_Death", 9, 1, 0.2f);
+    }
+
+    // The middle of the white region, so linear filtering never reaches past its edge
+    private static TextureRegion createWhiteRegion() {
+        TextureRegion region;
+        if (spriteAtlas != null) {
+            region = findSheet(GameConstants.WHITE_REGION);
+        } else {
+            Pixmap pixmap = new Pixmap(1, 1, Pixmap.Format.RGBA8888);
+            pixmap.setColor(1, 1, 1, 1);
+            pixmap.fill();
+            whiteTexture = new Texture(pixmap);
+            pixmap.dispose();
+            region = new TextureRegion(whiteTexture);
+        }
+        float u = (region.getU() + region.getU2()) / 2;
+        float v = (region.getV() + region.getV2()) / 2;
+        return new TextureRegion(region.getTexture(), u, v, u, v);
+    }
+
+    // A whole sprite sheet by its path under sprites/, without the extension
+    private static TextureRegion findSheet(String name) {
+        if (spriteAtlas != null) {
+            TextureRegion region = spriteAtlas.findRegion(name);
+            if (region == null) {
+                throw new IllegalStateException("No region " + name + " in " + GameConstants.SPRITE_ATLAS);
+            }
+            return region;
+        }
+        return new TextureRegion(manager.get(sheetPath(name), Texture.class));
+    }
+
+    private static String sheetPath(String name) {
+        return "sprites/" + name + ".png";
+    }
+
+    // Splits relative to the sheet's own corner, which is somewhere inside the atlas page
+    private static TextureRegion[][] splitSheet(TextureRegion sheet, int cols, int rows) {
+        return sheet.split(sheet.getRegionWidth() / cols, sheet.getRegionHeight() / rows);
+    }
+
+    private static Animation<TextureRegion> createAnimation(String sheet, int cols, int rows, float frameDuration) {
+        TextureRegion[][] tmp = splitSheet(findSheet(sheet), cols, rows);
         
         TextureRegion[] frames = new TextureRegion[cols * rows];
         int index = 0;
@@ -136,7 +230,20 @@ public class AssetManager {
             }
         }
         
-        return new Animation<>(frameDuration, frames);
+        return withMirror(new Animation<>(frameDuration, frames));
+    }
+
+    private static Animation<TextureRegion> withMirror(Animation<TextureRegion> animation) {
+        TextureRegion[] frames = animation.getKeyFrames();
+        TextureRegion[] flipped = new TextureRegion[frames.length];
+        for (int i = 0; i < frames.length; i++) {
+            flipped[i] = new TextureRegion(frames[i]);
+            flipped[i].flip(true, false);
+        }
+        Animation<TextureRegion> twin = new Animation<>(animation.getFrameDuration(), flipped);
+        twin.setPlayMode(animation.getPlayMode());
+        mirrored.put(animation, twin);
+        return animation;
     }
 
     // Getters
@@ -164,26 +271,30 @@ public class AssetManager {
         return playerDeathAnimation;
     }
 
+    // One white pixel on the sprite atlas page; draw it with SpriteBatch.setColor for flat shapes
+    public static TextureRegion getWhiteRegion() {
+        return whiteRegion;
+    }
+
+    // The animation with every frame flipped to face left, or null for one that didn't come from here
+    public static Animation<TextureRegion> getMirrored(Animation<TextureRegion> animation) {
+        return animation == null ? null : mirrored.get(animation);
+    }
+
+    // Unloads everything, atlas pages and textures included
     public static void dispose() {
-        catIdleTexture.dispose();
-        catRunTexture.dispose();
-        catJumpTexture.dispose();
-        catFallTexture.dispose();
-        catAttackTexture.dispose();
-        catDodgeTexture.dispose();
-        catAirAttackTexture.dispose();
-        catLightAttackTexture.dispose();
-        
-        backgroundLayer1.dispose();
-        backgroundLayer2.dispose();
-        backgroundLayer3.dispose();
-        backgroundLayer4.dispose();
-        backgroundLayer5.dispose();
-        
-        enemyIdleTexture.dispose();
-        enemyAttackTexture.dispose();
-        enemyHurtTexture.dispose();
-        enemyDeathTexture.dispose();
-        enemyWalkTexture.dispose();
+        if (manager != null) {
+            manager.dispose();
+            manager = null;
+        }
+        if (whiteTexture != null) {
+            whiteTexture.dispose();
+            whiteTexture = null;
+        }
+        spriteAtlas = null;
+        whiteRegion = null;
+        mirrored.clear();
+        ready = false;
+        failed = false;
     }
-}
\ No newline at end of file
+}
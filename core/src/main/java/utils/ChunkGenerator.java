@@ -0,0 +1,130 @@
+package utils;
+
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.utils.FloatArray;
+
+/**
+ * Lays out the level one chunk (CHUNK_WIDTH world units) at a time. A chunk's layout depends
+ * only on the seed and its index, so chunks can be generated in any order, on any thread, and
+ * thrown away and generated again later exactly as they were.
+ *
+ * Chunk 0 is always the hand-built starting area.
+ */
+public class ChunkGenerator {
+    private static final float GROUND_HEIGHT = 1;
+    private static final float LEDGE_HEIGHT = 0.3f;
+    private static final float LEDGE_CHANCE = 0.7f;
+    private static final float MIN_LEDGE_WIDTH = 1.5f;
+    private static final float MAX_LEDGE_WIDTH = 3;
+    private static final int MAX_ENEMIES_PER_CHUNK = 2;
+
+    /** One chunk's platforms and enemy spawn points, in world units. Read only once built. */
+    public static final class Layout {
+        private final int index;
+        // x, y, width, height of each platform's box, centred on (x, y)
+        private final FloatArray platforms = new FloatArray(32);
+        // x, y of each spawn point
+        private final FloatArray spawns = new FloatArray(8);
+
+        Layout(int index) {
+            this.index = index;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public int getPlatformCount() {
+            return platforms.size / 4;
+        }
+
+        public float getPlatformX(int i) {
+            return platforms.get(i * 4);
+        }
+
+        public float getPlatformY(int i) {
+            return platforms.get(i * 4 + 1);
+        }
+
+        public float getPlatformWidth(int i) {
+            return platforms.get(i * 4 + 2);
+        }
+
+        public float getPlatformHeight(int i) {
+            return platforms.get(i * 4 + 3);
+        }
+
+        public int getSpawnCount() {
+            return spawns.size / 2;
+        }
+
+        public float getSpawnX(int i) {
+            return spawns.get(i * 2);
+        }
+
+        public float getSpawnY(int i) {
+            return spawns.get(i * 2 + 1);
+        }
+
+        private void addPlatform(float x, float y, float width, float height) {
+            platforms.add(x, y, width, height);
+        }
+    }
+
+    private final long seed;
+
+    public ChunkGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    // The starting area: ground the width of the screen and three ledges
+    public static Layout startLayout() {
+        Layout layout = new Layout(0);
+        layout.addPlatform(GameConstants.CHUNK_WIDTH / 2f, GROUND_HEIGHT / 2, GameConstants.CHUNK_WIDTH, GROUND_HEIGHT);
+        layout.addPlatform(2, 2, 2, LEDGE_HEIGHT);
+        layout.addPlatform(6, 2, 2, LEDGE_HEIGHT);
+        layout.addPlatform(4, 3, 2, LEDGE_HEIGHT);
+        return layout;
+    }
+
+    // Safe to call from any thread
+    public Layout generate(int index) {
+        if (index == 0) {
+            return startLayout();
+        }
+
+        // RandomXS128 scrambles its seed, so neighbouring chunks still get unrelated sequences
+        RandomXS128 random = new RandomXS128(seed ^ index * 0x9E3779B97F4A7C15L);
+        Layout layout = new Layout(index);
+        float left = index * GameConstants.CHUNK_WIDTH;
+
+        // Unbroken ground, so there is always somewhere to land
+        layout.addPlatform(left + GameConstants.CHUNK_WIDTH / 2f, GROUND_HEIGHT / 2, GameConstants.CHUNK_WIDTH,
+                GROUND_HEIGHT);
+
+        // Ledges one or two rows up, within an enemy's jump of the ground and of each other
+        float x = left + 0.5f + random.nextFloat();
+        while (true) {
+            float width = MIN_LEDGE_WIDTH + random.nextFloat() * (MAX_LEDGE_WIDTH - MIN_LEDGE_WIDTH);
+            if (x + width > left + GameConstants.CHUNK_WIDTH - 0.5f) {
+                break;
+            }
+            if (random.nextFloat() < LEDGE_CHANCE) {
+                int row = 2 + random.nextInt(2);
+                layout.addPlatform(x + width / 2, row, width, LEDGE_HEIGHT);
+            }
+            x += width + 1 + random.nextFloat();
+        }
+
+        int enemies = random.nextInt(MAX_ENEMIES_PER_CHUNK + 1);
+        for (int i = 0; i < enemies; i++) {
+            layout.spawns.add(left + 1 + random.nextFloat() * (GameConstants.CHUNK_WIDTH - 2), GROUND_HEIGHT + 0.5f);
+        }
+        return layout;
+    }
+
+    // Index of the chunk containing a world x position
+    public static int chunkAt(float x) {
+        return (int) Math.floor(x / GameConstants.CHUNK_WIDTH);
+    }
+}
@@ -0,0 +1,174 @@
+package utils;
+
+import com.badlogic.gdx.utils.IntArray;
+import java.util.Arrays;
+
+/**
+ * A* over a CompactGraph that allocates nothing per search. All per-node state lives in
+ * scratch arrays sized once to the graph and invalidated by bumping a search id, and the
+ * open list is a primitive binary heap with decrease-key. One instance per thread.
+ */
+public class CompactAStar {
+    private final CompactGraph graph;
+
+    private final float[] cost;
+    private final float[] estimate;
+    private final int[] parent;
+    // Node state is valid for the current search only when its stamp equals searchId
+    private final int[] openStamp;
+    private final int[] closedStamp;
+    private int searchId;
+
+    private final int[] heap;
+    private final int[] heapIndex;
+    private int heapSize;
+
+    private int expanded;
+
+    public CompactAStar(CompactGraph graph) {
+        this.graph = graph;
+        int nodeCount = graph.getNodeCount();
+        cost = new float[nodeCount];
+        estimate = new float[nodeCount];
+        parent = new int[nodeCount];
+        openStamp = new int[nodeCount];
+        closedStamp = new int[nodeCount];
+        heap = new int[nodeCount];
+        heapIndex = new int[nodeCount];
+    }
+
+    // Fills outPath with node ids from start to goal (both included). Returns false, with
+    // outPath empty, when there's no route.
+    public boolean search(int start, int goal, IntArray outPath) {
+        outPath.clear();
+        expanded = 0;
+        if (start < 0 || goal < 0) {
+            return false;
+        }
+        nextSearch();
+
+        heapSize = 0;
+        cost[start] = 0;
+        parent[start] = -1;
+        open(start, heuristic(start, goal));
+
+        while (heapSize > 0) {
+            int node = pop();
+            if (node == goal) {
+                buildPath(goal, outPath);
+                return true;
+            }
+            closedStamp[node] = searchId;
+            expanded++;
+
+            float nodeCost = cost[node];
+            for (int e = graph.getEdgeStart(node), end = graph.getEdgeEnd(node); e < end; e++) {
+                int next = graph.getEdgeTarget(e);
+                if (closedStamp[next] == searchId) {
+                    continue;
+                }
+                float nextCost = nodeCost + graph.getEdgeCost(e);
+                if (openStamp[next] != searchId) {
+                    cost[next] = nextCost;
+                    parent[next] = node;
+                    open(next, nextCost + heuristic(next, goal));
+                } else if (nextCost < cost[next]) {
+                    cost[next] = nextCost;
+                    parent[next] = node;
+                    estimate[next] = nextCost + heuristic(next, goal);
+                    siftUp(heapIndex[next]);
+                }
+            }
+        }
+        return false;
+    }
+
+    // Nodes taken off the open list by the last search
+    public int getExpandedCount() {
+        return expanded;
+    }
+
+    private void nextSearch() {
+        if (searchId == Integer.MAX_VALUE) {
+            Arrays.fill(openStamp, 0);
+            Arrays.fill(closedStamp, 0);
+            searchId = 0;
+        }
+        searchId++;
+    }
+
+    private float heuristic(int node, int goal) {
+        float dx = graph.getX(node) - graph.getX(goal);
+        float dy = graph.getY(node) - graph.getY(goal);
+        return (float) Math.sqrt(dx * dx + dy * dy);
+    }
+
+    private void buildPath(int goal, IntArray outPath) {
+        int length = 0;
+        for (int node = goal; node != -1; node = parent[node]) {
+            length++;
+        }
+        int[] items = outPath.setSize(length);
+        for (int node = goal, i = length - 1; node != -1; node = parent[node], i--) {
+            items[i] = node;
+        }
+    }
+
+    private void open(int node, float f) {
+        openStamp[node] = searchId;
+        estimate[node] = f;
+        heap[heapSize] = node;
+        heapIndex[node] = heapSize;
+        siftUp(heapSize++);
+    }
+
+    private int pop() {
+        int top = heap[0];
+        heapSize--;
+        if (heapSize > 0) {
+            heap[0] = heap[heapSize];
+            heapIndex[heap[0]] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    private void siftUp(int i) {
+        int node = heap[i];
+        float f = estimate[node];
+        while (i > 0) {
+            int parentSlot = (i - 1) >> 1;
+            int parentNode = heap[parentSlot];
+            if (estimate[parentNode] <= f) {
+                break;
+            }
+            heap[i] = parentNode;
+            heapIndex[parentNode] = i;
+            i = parentSlot;
+        }
+        heap[i] = node;
+        heapIndex[node] = i;
+    }
+
+    private void siftDown(int i) {
+        int node = heap[i];
+        float f = estimate[node];
+        while (true) {
+            int child = (i << 1) + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && estimate[heap[child + 1]] < estimate[heap[child]]) {
+                child++;
+            }
+            if (f <= estimate[heap[child]]) {
+                break;
+            }
+            heap[i] = heap[child];
+            heapIndex[heap[i]] = i;
+            i = child;
+        }
+        heap[i] = node;
+        heapIndex[node] = i;
+    }
+}
@@ -0,0 +1,120 @@
+package utils;
+
+import com.badlogic.gdx.ai.pfa.Connection;
+import com.badlogic.gdx.utils.Array;
+import java.util.BitSet;
+
+/**
+ * GridGraph flattened into primitive arrays. Only standable cells become nodes; their
+ * coordinates live in int arrays and their connections in compressed-sparse-row form
+ * (edgeStart[n]..edgeStart[n + 1] index into edgeTarget / edgeCost). Nothing here is an
+ * object per node or per edge, so large levels stay small and searches stay cache friendly.
+ */
+public class CompactGraph {
+    private final int width;
+    private final int height;
+    private final BitSet walkable;
+    // Grid cell (x * height + y) to node id, -1 for cells that aren't nodes
+    private final int[] cellToNode;
+    private final int[] nodeX;
+    private final int[] nodeY;
+    private final int[] edgeStart;
+    private final int[] edgeTarget;
+    private final float[] edgeCost;
+
+    public CompactGraph(GridGraph grid) {
+        width = grid.getWidth();
+        height = grid.getHeight();
+        int cellCount = width * height;
+
+        walkable = new BitSet(cellCount);
+        cellToNode = new int[cellCount];
+        int nodeCount = 0;
+        int edgeCount = 0;
+        for (int cell = 0; cell < cellCount; cell++) {
+            GridNode node = grid.getNodeByIndex(cell);
+            if (node.isWalkable()) {
+                walkable.set(cell);
+                cellToNode[cell] = nodeCount++;
+                edgeCount += node.getConnections().size;
+            } else {
+                cellToNode[cell] = -1;
+            }
+        }
+
+        nodeX = new int[nodeCount];
+        nodeY = new int[nodeCount];
+        edgeStart = new int[nodeCount + 1];
+        edgeTarget = new int[edgeCount];
+        edgeCost = new float[edgeCount];
+
+        int edge = 0;
+        for (int cell = walkable.nextSetBit(0); cell >= 0; cell = walkable.nextSetBit(cell + 1)) {
+            int id = cellToNode[cell];
+            GridNode node = grid.getNodeByIndex(cell);
+            nodeX[id] = node.getX();
+            nodeY[id] = node.getY();
+            edgeStart[id] = edge;
+            Array<Connection<GridNode>> connections = node.getConnections();
+            for (int i = 0; i < connections.size; i++) {
+                Connection<GridNode> connection = connections.get(i);
+                edgeTarget[edge] = cellToNode[grid.getIndex(connection.getToNode())];
+                edgeCost[edge] = connection.getCost();
+                edge++;
+            }
+        }
+        edgeStart[nodeCount] = edge;
+    }
+
+    // Node id of the cell at (x, y), or -1 if it isn't standable or is off the grid
+    public int getNode(int x, int y) {
+        if (x < 0 || x >= width || y < 0 || y >= height) {
+            return -1;
+        }
+        return cellToNode[x * height + y];
+    }
+
+    public boolean isWalkable(int x, int y) {
+        return x >= 0 && x < width && y >= 0 && y < height && walkable.get(x * height + y);
+    }
+
+    public int getNodeCount() {
+        return nodeX.length;
+    }
+
+    public int getEdgeCount() {
+        return edgeTarget.length;
+    }
+
+    public int getX(int node) {
+        return nodeX[node];
+    }
+
+    public int getY(int node) {
+        return nodeY[node];
+    }
+
+    public int getEdgeStart(int node) {
+        return edgeStart[node];
+    }
+
+    public int getEdgeEnd(int node) {
+        return edgeStart[node + 1];
+    }
+
+    public int getEdgeTarget(int edge) {
+        return edgeTarget[edge];
+    }
+
+    public float getEdgeCost(int edge) {
+        return edgeCost[edge];
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+}
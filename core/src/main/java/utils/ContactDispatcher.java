@@ -0,0 +1,69 @@
+package utils;
+
+import com.badlogic.gdx.physics.box2d.Contact;
+import com.badlogic.gdx.physics.box2d.ContactImpulse;
+import com.badlogic.gdx.physics.box2d.ContactListener;
+import com.badlogic.gdx.physics.box2d.Fixture;
+import com.badlogic.gdx.physics.box2d.Manifold;
+
+/**
+ * The world's contact listener. Each contact goes to the handler registered for the type of
+ * either fixture, if there is one, so a contact costs two array lookups unless somebody asked
+ * about it. Contacts that no filter lets through never get here at all; see FixtureType.
+ */
+public class ContactDispatcher implements ContactListener {
+    /** Hears about the contacts of one fixture type, with that fixture first. */
+    public interface Handler {
+        void beginContact(Fixture own, Fixture other);
+
+        void endContact(Fixture own, Fixture other);
+    }
+
+    private final Handler[] handlers = new Handler[FixtureType.COUNT];
+
+    // Replaces any handler already registered for the type; null stops listening
+    public void setHandler(FixtureType type, Handler handler) {
+        handlers[type.ordinal()] = handler;
+    }
+
+    @Override
+    public void beginContact(Contact contact) {
+        Fixture fixtureA = contact.getFixtureA();
+        Fixture fixtureB = contact.getFixtureB();
+        Handler handler = handlerFor(fixtureA);
+        if (handler != null) {
+            handler.beginContact(fixtureA, fixtureB);
+        }
+        handler = handlerFor(fixtureB);
+        if (handler != null) {
+            handler.beginContact(fixtureB, fixtureA);
+        }
+    }
+
+    @Override
+    public void endContact(Contact contact) {
+        Fixture fixtureA = contact.getFixtureA();
+        Fixture fixtureB = contact.getFixtureB();
+        Handler handler = handlerFor(fixtureA);
+        if (handler != null) {
+            handler.endContact(fixtureA, fixtureB);
+        }
+        handler = handlerFor(fixtureB);
+        if (handler != null) {
+            handler.endContact(fixtureB, fixtureA);
+        }
+    }
+
+    private Handler handlerFor(Fixture fixture) {
+        FixtureType type = FixtureType.of(fixture);
+        return type == null ? null : handlers[type.ordinal()];
+    }
+
+    @Override
+    public void preSolve(Contact contact, Manifold oldManifold) {
+    }
+
+    @Override
+    public void postSolve(Contact contact, ContactImpulse impulse) {
+    }
+}
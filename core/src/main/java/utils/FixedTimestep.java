@@ -0,0 +1,39 @@
+package utils;
+
+/**
+ * Accumulates frame time and hands it out as fixed-size simulation ticks.
+ * The leftover fraction of a tick is exposed as an alpha for render interpolation.
+ */
+public class FixedTimestep {
+    private final float step;
+    private final int maxSteps;
+    private float accumulator;
+
+    public FixedTimestep(float step, int maxSteps) {
+        this.step = step;
+        this.maxSteps = maxSteps;
+        this.accumulator = 0;
+    }
+
+    // Adds the frame time and returns how many ticks should run this frame
+    public int advance(float delta) {
+        accumulator += delta;
+        int steps = (int) (accumulator / step);
+        accumulator -= steps * step;
+
+        // Drop any backlog past the cap so a slow frame can't snowball into slower ones
+        if (steps > maxSteps) {
+            steps = maxSteps;
+        }
+        return steps;
+    }
+
+    // How far we are between the previous tick and the next one (0 to 1)
+    public float getAlpha() {
+        return accumulator / step;
+    }
+
+    public float getStep() {
+        return step;
+    }
+}
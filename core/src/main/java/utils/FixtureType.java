@@ -0,0 +1,58 @@
+package utils;
+
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.physics.box2d.Fixture;
+import com.badlogic.gdx.physics.box2d.FixtureDef;
+
+/**
+ * What a fixture is. Every fixture in the game carries one as its user data, and gets the
+ * collision filter that goes with it: a type only collides with the types in its mask, so pairs
+ * nothing cares about (enemies with each other, the player's foot with anything but the ground)
+ * never become contacts at all. ContactDispatcher routes contacts by it.
+ */
+public enum FixtureType {
+    GROUND,
+    PLAYER,
+    // Sensor under the player's feet; only the ground counts as standing on something
+    PLAYER_FOOT,
+    ENEMY;
+
+    public static final int COUNT = values().length;
+
+    public final short category = (short) (1 << ordinal());
+    private short mask;
+
+    static {
+        GROUND.mask = bits(PLAYER, PLAYER_FOOT, ENEMY);
+        PLAYER.mask = bits(GROUND, ENEMY);
+        PLAYER_FOOT.mask = bits(GROUND);
+        ENEMY.mask = bits(GROUND, PLAYER);
+    }
+
+    private static short bits(FixtureType... types) {
+        int bits = 0;
+        for (FixtureType type : types) {
+            bits |= type.category;
+        }
+        return (short) bits;
+    }
+
+    public short getMask() {
+        return mask;
+    }
+
+    // Creates the fixture with this type's filter, tagged with this type
+    public Fixture create(Body body, FixtureDef fixtureDef) {
+        fixtureDef.filter.categoryBits = category;
+        fixtureDef.filter.maskBits = mask;
+        Fixture fixture = body.createFixture(fixtureDef);
+        fixture.setUserData(this);
+        return fixture;
+    }
+
+    // The fixture's type, or null for fixtures made some other way
+    public static FixtureType of(Fixture fixture) {
+        Object data = fixture.getUserData();
+        return data instanceof FixtureType ? (FixtureType) data : null;
+    }
+}
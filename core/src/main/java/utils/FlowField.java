@@ -0,0 +1,165 @@
+package utils;
+
+import com.badlogic.gdx.ai.pfa.Connection;
+import com.badlogic.gdx.utils.Array;
+import java.util.Arrays;
+
+/**
+ * For every cell of a GridGraph, the next cell on a cheapest route to a single goal.
+ * One Dijkstra pass from the goal fills the whole field, after which any number of
+ * enemies can look up their next step in O(1). The pass only reruns when the goal moves.
+ */
+public class FlowField {
+    private static final int NONE = -1;
+
+    private final GridGraph graph;
+    private final int nodeCount;
+
+    // Incoming connections per node (compressed rows), so we can search backwards from the goal
+    private final int[] incomingStart;
+    private final int[] incomingFrom;
+    private final float[] incomingCost;
+
+    private final int[] nextStep;
+    private final float[] distance;
+
+    // Binary min-heap of node indices keyed by distance. A node is pushed again each time it
+    // improves and the stale copies are skipped when popped, so each connection pushes at most once.
+    private final int[] heap;
+    private final float[] heapKeys;
+    private int heapSize;
+    private int poppedNode;
+    private float poppedKey;
+
+    private GridNode goal;
+
+    public FlowField(GridGraph graph) {
+        this.graph = graph;
+        this.nodeCount = graph.getNodeCount();
+
+        // Count incoming connections per node, then fill them in
+        int[] counts = new int[nodeCount + 1];
+        int edgeCount = 0;
+        for (int i = 0; i < nodeCount; i++) {
+            Array<Connection<GridNode>> connections = graph.getConnections(graph.getNodeByIndex(i));
+            for (int c = 0; c < connections.size; c++) {
+                counts[graph.getIndex(connections.get(c).getToNode()) + 1]++;
+                edgeCount++;
+            }
+        }
+        incomingStart = new int[nodeCount + 1];
+        for (int i = 0; i < nodeCount; i++) {
+            incomingStart[i + 1] = incomingStart[i] + counts[i + 1];
+        }
+        incomingFrom = new int[edgeCount];
+        incomingCost = new float[edgeCount];
+        int[] fill = Arrays.copyOf(incomingStart, nodeCount);
+        for (int i = 0; i < nodeCount; i++) {
+            Array<Connection<GridNode>> connections = graph.getConnections(graph.getNodeByIndex(i));
+            for (int c = 0; c < connections.size; c++) {
+                Connection<GridNode> connection = connections.get(c);
+                int slot = fill[graph.getIndex(connection.getToNode())]++;
+                incomingFrom[slot] = i;
+                incomingCost[slot] = connection.getCost();
+            }
+        }
+
+        nextStep = new int[nodeCount];
+        distance = new float[nodeCount];
+        heap = new int[edgeCount + 1];
+        heapKeys = new float[edgeCount + 1];
+        Arrays.fill(nextStep, NONE);
+    }
+
+    // Recomputes the field if the goal changed; returns whether it did
+    public boolean update(GridNode newGoal) {
+        if (newGoal == goal) {
+            return false;
+        }
+        goal = newGoal;
+
+        Arrays.fill(nextStep, NONE);
+        Arrays.fill(distance, Float.POSITIVE_INFINITY);
+        if (goal == null) {
+            return true;
+        }
+
+        int goalIndex = graph.getIndex(goal);
+        distance[goalIndex] = 0;
+        heapSize = 0;
+        push(goalIndex, 0);
+
+        while (heapSize > 0) {
+            pop();
+            int node = poppedNode;
+            float nodeDistance = distance[node];
+            if (poppedKey > nodeDistance) {
+                continue;
+            }
+            for (int e = incomingStart[node]; e < incomingStart[node + 1]; e++) {
+                int from = incomingFrom[e];
+                float candidate = nodeDistance + incomingCost[e];
+                if (candidate < distance[from]) {
+                    distance[from] = candidate;
+                    nextStep[from] = node;
+                    push(from, candidate);
+                }
+            }
+        }
+        return true;
+    }
+
+    // Next cell to move to from the given one, or null at the goal or when it can't be reached
+    public GridNode getNextStep(GridNode from) {
+        if (from == null) {
+            return null;
+        }
+        int next = nextStep[graph.getIndex(from)];
+        return next == NONE ? null : graph.getNodeByIndex(next);
+    }
+
+    public GridNode getGoal() {
+        return goal;
+    }
+
+    private void push(int node, float key) {
+        int i = heapSize++;
+        while (i > 0) {
+            int parent = (i - 1) >> 1;
+            if (heapKeys[parent] <= key) {
+                break;
+            }
+            heap[i] = heap[parent];
+            heapKeys[i] = heapKeys[parent];
+            i = parent;
+        }
+        heap[i] = node;
+        heapKeys[i] = key;
+    }
+
+    // Removes the smallest entry; its node and key are left in poppedNode / poppedKey
+    private void pop() {
+        poppedNode = heap[0];
+        poppedKey = heapKeys[0];
+        int last = heap[--heapSize];
+        float lastKey = heapKeys[heapSize];
+        int i = 0;
+        while (true) {
+            int child = (i << 1) + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && heapKeys[child + 1] < heapKeys[child]) {
+                child++;
+            }
+            if (lastKey <= heapKeys[child]) {
+                break;
+            }
+            heap[i] = heap[child];
+            heapKeys[i] = heapKeys[child];
+            i = child;
+        }
+        heap[i] = last;
+        heapKeys[i] = lastKey;
+    }
+}
@@ -0,0 +1,302 @@
+package utils;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+/**
+ * Times the phases of each frame and keeps the last WINDOW frames, along with the renderer's
+ * GL counters and GC / heap figures. Every sample also lands in a rolling log-scale histogram
+ * per phase (and leaves it when it falls out of the window), so averages and percentiles are
+ * available every frame without sorting anything. Nothing is allocated after construction.
+ *
+ * Phases can be entered more than once per frame (several physics ticks, say); their times add up.
+ */
+public class FrameProfiler {
+    public static final int WINDOW = 600;
+    // Bucket i holds samples from 2^(i-1) up to 2^i microseconds; bucket 0 is under 1 us
+    public static final int BUCKETS = 18;
+
+    public enum Phase {
+        STREAMING("level streaming"),
+        PHYSICS("world.step"),
+        PLAYER("player system"),
+        ENEMIES("enemy AI"),
+        COMBAT("combat"),
+        ANIMATION("animation"),
+        SPAWNING("spawning"),
+        PATHFINDING("pathfinding"),
+        BACKGROUND("background"),
+        SPRITES("sprite batch"),
+        PLATFORMS("platforms"),
+        HUD("hud"),
+        FRAME("frame total");
+
+        private final String label;
+
+        Phase(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    private static final Phase[] PHASES = Phase.values();
+
+    private boolean enabled = true;
+
+    // This frame so far
+    private final long[] startNanos = new long[PHASES.length];
+    private final long[] frameNanos = new long[PHASES.length];
+    private long frameStart;
+    private int drawCalls;
+    private int textureBindings;
+    private int shaderSwitches;
+    private int batchFlushes;
+
+    // The last WINDOW frames, oldest overwritten first
+    private final long[][] samples = new long[PHASES.length][WINDOW];
+    private final int[][] histograms = new int[PHASES.length][BUCKETS];
+    private final long[] totals = new long[PHASES.length];
+    private final int[] drawCallSamples = new int[WINDOW];
+    private final int[] textureBindingSamples = new int[WINDOW];
+    private final int[] shaderSwitchSamples = new int[WINDOW];
+    private final int[] batchFlushSamples = new int[WINDOW];
+    private final int[] gcCountSamples = new int[WINDOW];
+    private final long[] gcNanoSamples = new long[WINDOW];
+    private final long[] heapSamples = new long[WINDOW];
+    private long frameCount;
+
+    private final List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+    private long lastGcCount;
+    private long lastGcMillis;
+
+    public FrameProfiler() {
+        lastGcCount = gcCount();
+        lastGcMillis = gcMillis();
+        frameStart = System.nanoTime();
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void begin(Phase phase) {
+        if (enabled) {
+            startNanos[phase.ordinal()] = System.nanoTime();
+        }
+    }
+
+    public void end(Phase phase) {
+        if (enabled) {
+            frameNanos[phase.ordinal()] += System.nanoTime() - startNanos[phase.ordinal()];
+        }
+    }
+
+    // Renderer counters for this frame, e.g. from GLProfiler
+    public void setGlCounters(int drawCalls, int textureBindings, int shaderSwitches) {
+        this.drawCalls = drawCalls;
+        this.textureBindings = textureBindings;
+        this.shaderSwitches = shaderSwitches;
+    }
+
+    // Times the game's SpriteBatch drew this frame (its renderCalls); unlike the GL counters
+    // this costs nothing to keep, so it's there every frame
+    public void setBatchFlushes(int batchFlushes) {
+        this.batchFlushes = batchFlushes;
+    }
+
+    // Closes the frame: its phase times, counters and GC activity go into the window
+    public void endFrame() {
+        long now = System.nanoTime();
+        if (!enabled) {
+            frameStart = now;
+            return;
+        }
+        frameNanos[Phase.FRAME.ordinal()] = now - frameStart;
+        frameStart = now;
+
+        int slot = (int) (frameCount % WINDOW);
+        boolean full = frameCount >= WINDOW;
+        for (int p = 0; p < PHASES.length; p++) {
+            if (full) {
+                long old = samples[p][slot];
+                histograms[p][bucket(old)]--;
+                totals[p] -= old;
+            }
+            long nanos = frameNanos[p];
+            samples[p][slot] = nanos;
+            histograms[p][bucket(nanos)]++;
+            totals[p] += nanos;
+            frameNanos[p] = 0;
+        }
+
+        long count = gcCount();
+        long millis = gcMillis();
+        gcCountSamples[slot] = (int) (count - lastGcCount);
+        gcNanoSamples[slot] = (millis - lastGcMillis) * 1000000;
+        lastGcCount = count;
+        lastGcMillis = millis;
+        Runtime runtime = Runtime.getRuntime();
+        heapSamples[slot] = runtime.totalMemory() - runtime.freeMemory();
+
+        drawCallSamples[slot] = drawCalls;
+        textureBindingSamples[slot] = textureBindings;
+        shaderSwitchSamples[slot] = shaderSwitches;
+        batchFlushSamples[slot] = batchFlushes;
+        drawCalls = 0;
+        textureBindings = 0;
+        shaderSwitches = 0;
+        batchFlushes = 0;
+
+        frameCount++;
+    }
+
+    // Frames currently in the window
+    public int getSampleCount() {
+        return (int) Math.min(frameCount, WINDOW);
+    }
+
+    public float getAverageMillis(Phase phase) {
+        int count = getSampleCount();
+        return count == 0 ? 0 : totals[phase.ordinal()] / (count * 1e6f);
+    }
+
+    // Upper edge of the histogram bucket the given fraction of samples falls in, so it errs high
+    public float getPercentileMillis(Phase phase, float fraction) {
+        int count = getSampleCount();
+        if (count == 0) {
+            return 0;
+        }
+        int[] histogram = histograms[phase.ordinal()];
+        int target = (int) Math.ceil(count * fraction);
+        int seen = 0;
+        for (int b = 0; b < BUCKETS; b++) {
+            seen += histogram[b];
+            if (seen >= target) {
+                return bucketLimitMicros(b) / 1000f;
+            }
+        }
+        return bucketLimitMicros(BUCKETS - 1) / 1000f;
+    }
+
+    public float getMaxMillis(Phase phase) {
+        long max = 0;
+        long[] phaseSamples = samples[phase.ordinal()];
+        for (int i = 0, count = getSampleCount(); i < count; i++) {
+            max = Math.max(max, phaseSamples[i]);
+        }
+        return max / 1e6f;
+    }
+
+    // Counts per bucket; see BUCKETS for the ranges. Read only.
+    public int[] getHistogram(Phase phase) {
+        return histograms[phase.ordinal()];
+    }
+
+    public static int bucketLimitMicros(int bucket) {
+        return 1 << bucket;
+    }
+
+    public int getLastDrawCalls() {
+        return drawCallSamples[lastSlot()];
+    }
+
+    public int getLastTextureBindings() {
+        return textureBindingSamples[lastSlot()];
+    }
+
+    public int getLastShaderSwitches() {
+        return shaderSwitchSamples[lastSlot()];
+    }
+
+    public int getLastBatchFlushes() {
+        return batchFlushSamples[lastSlot()];
+    }
+
+    public long getLastHeapBytes() {
+        return heapSamples[lastSlot()];
+    }
+
+    // Collections and time spent collecting over the whole window
+    public int getWindowGcCount() {
+        int total = 0;
+        for (int i = 0, count = getSampleCount(); i < count; i++) {
+            total += gcCountSamples[i];
+        }
+        return total;
+    }
+
+    public float getWindowGcMillis() {
+        long total = 0;
+        for (int i = 0, count = getSampleCount(); i < count; i++) {
+            total += gcNanoSamples[i];
+        }
+        return total / 1e6f;
+    }
+
+    // One row per frame in the window, oldest first, times in milliseconds
+    public void writeCsv(Writer out) throws IOException {
+        out.write("frame");
+        for (Phase phase : PHASES) {
+            out.write(',');
+            out.write(phase.getLabel());
+        }
+        out.write(",draw calls,texture bindings,shader switches,batch flushes,gc count,gc ms,heap bytes\n");
+
+        int count = getSampleCount();
+        long first = frameCount - count;
+        StringBuilder row = new StringBuilder(256);
+        for (long frame = first; frame < frameCount; frame++) {
+            int slot = (int) (frame % WINDOW);
+            row.setLength(0);
+            row.append(frame);
+            for (int p = 0; p < PHASES.length; p++) {
+                row.append(',').append(samples[p][slot] / 1e6f);
+            }
+            row.append(',').append(drawCallSamples[slot])
+                    .append(',').append(textureBindingSamples[slot])
+                    .append(',').append(shaderSwitchSamples[slot])
+                    .append(',').append(batchFlushSamples[slot])
+                    .append(',').append(gcCountSamples[slot])
+                    .append(',').append(gcNanoSamples[slot] / 1e6f)
+                    .append(',').append(heapSamples[slot])
+                    .append('\n');
+            out.append(row);
+        }
+    }
+
+    private int lastSlot() {
+        return frameCount == 0 ? 0 : (int) ((frameCount - 1) % WINDOW);
+    }
+
+    private static int bucket(long nanos) {
+        long micros = nanos / 1000;
+        int bucket = micros == 0 ? 0 : 64 - Long.numberOfLeadingZeros(micros);
+        return Math.min(bucket, BUCKETS - 1);
+    }
+
+    private long gcCount() {
+        long total = 0;
+        for (int i = 0; i < collectors.size(); i++) {
+            total += Math.max(0, collectors.get(i).getCollectionCount());
+        }
+        return total;
+    }
+
+    private long gcMillis() {
+        long total = 0;
+        for (int i = 0; i < collectors.size(); i++) {
+            total += Math.max(0, collectors.get(i).getCollectionTime());
+        }
+        return total;
+    }
+}
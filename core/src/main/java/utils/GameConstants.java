@@ -7,10 +7,79 @@ public class GameConstants {
     public static final float VIEWPORT_WIDTH = 8f;
     public static final float VIEWPORT_HEIGHT = 4.8f;
     
+    // World gravity (m/s^2)
+    public static final float GRAVITY = -1f;
+
     // Player movement constants
     public static final float PLAYER_SPEED = 1f;
     public static final float JUMP_FORCE = 0.5f;
     
+    // Simulation timestep
+    public static final float TIME_STEP = 1 / 60f;
+    public static final int MAX_STEPS_PER_FRAME = 5;
+    public static final int VELOCITY_ITERATIONS = 6;
+    public static final int POSITION_ITERATIONS = 2;
+
+    // How far apart two surfaces can be for enemies to path between them, in cells
+    public static final int ENEMY_MAX_JUMP_CELLS = 2;
+    public static final int ENEMY_MAX_JUMP_DISTANCE = 3;
+
+    // Time the path request queue may spend searching each frame
+    public static final int PATHFINDING_BUDGET_MICROS = 1000;
+    // Cluster edge length, in cells, for hierarchical pathfinding
+    public static final int PATHFINDING_CLUSTER_SIZE = 16;
+
+    // Level streaming: the level is generated CHUNK_WIDTH units at a time, and the chunks from
+    // CHUNKS_BEHIND behind the player to CHUNKS_AHEAD ahead are kept loaded. Loaded chunks stay
+    // until they are CHUNK_UNLOAD_MARGIN further out, so pacing over a boundary doesn't reload them.
+    public static final int CHUNK_WIDTH = 8;
+    public static final int CHUNKS_BEHIND = 1;
+    public static final int CHUNKS_AHEAD = 2;
+    public static final int CHUNK_UNLOAD_MARGIN = 1;
+    public static final int LEVEL_HEIGHT = 10;
+    public static final long LEVEL_SEED = 0x5EEDL;
+
+    // Enemies kept for reuse, Box2D body and all, once they leave the world; any more are destroyed
+    public static final int ENEMY_POOL_SIZE = 64;
+    // Waves: once no enemies are left alive, after WAVE_DELAY seconds the next wave drops in on
+    // both sides of the player, each wave WAVE_GROWTH bigger than the last up to WAVE_MAX_SIZE
+    public static final int WAVE_FIRST_SIZE = 2;
+    public static final int WAVE_GROWTH = 1;
+    public static final int WAVE_MAX_SIZE = 12;
+    public static final float WAVE_DELAY = 3f;
+    public static final float WAVE_SPAWN_DISTANCE = 2.5f;
+    // Just above the ground, which is one unit tall in every level
+    public static final float WAVE_SPAWN_HEIGHT = 1.5f;
+
+    // Enemy AI thinks on AI_THREADS threads (0 for one per core), AI_BATCH_SIZE enemies to a task,
+    // once there are at least AI_PARALLEL_MIN_ENEMIES of them; fewer aren't worth handing out
+    public static final int AI_THREADS = 0;
+    public static final int AI_PARALLEL_MIN_ENEMIES = 128;
+    public static final int AI_BATCH_SIZE = 32;
+
+    // Hurtboxes are bucketed by COMBAT_CELL_SIZE cells each tick, hashed into COMBAT_GRID_BUCKETS lists
+    public static final float COMBAT_CELL_SIZE = 1f;
+    public static final int COMBAT_GRID_BUCKETS = 1024;
+
+    // What's drawn is filed in a grid of CULLING_CELL_SIZE cells, hashed into CULLING_GRID_BUCKETS
+    // lists, and each frame only what the camera's cells hold is drawn
+    public static final float CULLING_CELL_SIZE = 4f;
+    public static final int CULLING_GRID_BUCKETS = 1024;
+
+    // Logging: messages below LOG_LEVEL are skipped; the rest go to LOG_FILE (and the console)
+    public static final Log.Level LOG_LEVEL = Log.Level.INFO;
+    public static final String LOG_FILE = "game.log";
+    public static final boolean LOG_TO_CONSOLE = true;
+    // Messages that can wait for the writer thread at once; rounded down to a power of two
+    public static final int LOG_BUFFER_SIZE = 4096;
+
+    // Character sprite sheets packed by the packTextures Gradle task
+    public static final String SPRITE_ATLAS = "atlas/sprites.atlas";
+    // A single white pixel in that atlas (sprites/white.png) that flat shapes are drawn with
+    public static final String WHITE_REGION = "white";
+    // Time each frame may spend finishing loaded assets (uploads, building animations)
+    public static final int ASSET_LOAD_BUDGET_MILLIS = 10;
+
     // Animation constants
     public static final float FRAME_DURATION = 0.1f;
     
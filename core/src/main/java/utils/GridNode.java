@@ -24,6 +24,18 @@ public class GridNode {
         }
     }
 
+    public void addConnection(GridNode toNode, NavConnection.Type type, float cost) {
+        if (toNode.isWalkable()) {
+            connections.add(new NavConnection(this, toNode, type, cost));
+        }
+    }
+
+    // Back to an empty, unwalkable cell, ready to be rebuilt
+    public void clear() {
+        walkable = false;
+        connections.clear();
+    }
+
     public boolean isWalkable() {
         return walkable;
     }
@@ -0,0 +1,622 @@
+package utils;
+
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.IntArray;
+import java.util.Arrays;
+
+/**
+ * Hierarchical A* (HPA*) over a CompactGraph. The grid is cut into square clusters; every
+ * node with a connection leaving or entering its cluster is an entrance, and each cluster
+ * stores the cheapest in-cluster cost between every pair of its entrances. A query searches
+ * only that small abstract graph (plus the start and goal, linked to their cluster's
+ * entrances on the fly) and then refines just the first leg into concrete nodes, so long
+ * routes cost about as much as short ones. Because every boundary-crossing connection ends
+ * in entrances, abstract costs are exact.
+ *
+ * Built for one graph; when the graph changes, build a new one. Nothing is allocated per
+ * query. One instance per thread.
+ */
+public class HierarchicalPathfinder {
+    private static final float UNREACHABLE = Float.POSITIVE_INFINITY;
+    private static final float PRUNE_TOLERANCE = 1e-4f;
+
+    private final int width;
+    private final int height;
+    private final int clusterSize;
+    private final int clustersX;
+    private final int clustersY;
+
+    private final CompactGraph graph;
+    // Incoming connections per node (compressed rows), for searching back from the goal
+    private final int[] incomingStart;
+    private final int[] incomingFrom;
+    private final float[] incomingCost;
+
+    private final Cluster[] clusters;
+    // Per grid cell: its slot in its cluster's entrance list, or -1
+    private final int[] entranceSlot;
+
+    // Abstract search state, per grid cell
+    private final float[] cost;
+    private final float[] estimate;
+    private final int[] parent;
+    private final int[] openStamp;
+    private final int[] closedStamp;
+    private final int[] heap;
+    private final int[] heapIndex;
+    private int heapSize;
+    private int searchId;
+
+    private final ClusterSearch startSearch;
+    private final ClusterSearch goalSearch;
+    private final IntArray abstractPath = new IntArray();
+    private float pathCost;
+    private int expanded;
+
+    private static final class Cluster {
+        final int x0, y0, x1, y1;
+        int[] entrances = new int[0];
+        // Cheapest in-cluster routes from each entrance to the entrances that lead out of the
+        // cluster, grouped per entrance: intraStart[i]..intraStart[i + 1]
+        int[] intraStart = new int[1];
+        int[] intraTarget = new int[0];
+        float[] intraCost = new float[0];
+        // Connections leaving the cluster, grouped per entrance: interStart[i]..interStart[i + 1]
+        int[] interStart = new int[1];
+        int[] interTarget = new int[0];
+        float[] interCost = new float[0];
+
+        Cluster(int x0, int y0, int x1, int y1) {
+            this.x0 = x0;
+            this.y0 = y0;
+            this.x1 = x1;
+            this.y1 = y1;
+        }
+    }
+
+    public HierarchicalPathfinder(CompactGraph graph, int clusterSize) {
+        this.graph = graph;
+        this.width = graph.getWidth();
+        this.height = graph.getHeight();
+        this.clusterSize = clusterSize;
+        this.clustersX = (width + clusterSize - 1) / clusterSize;
+        this.clustersY = (height + clusterSize - 1) / clusterSize;
+
+        clusters = new Cluster[clustersX * clustersY];
+        for (int cx = 0; cx < clustersX; cx++) {
+            for (int cy = 0; cy < clustersY; cy++) {
+                clusters[cx * clustersY + cy] = new Cluster(cx * clusterSize, cy * clusterSize,
+                        Math.min(width, (cx + 1) * clusterSize), Math.min(height, (cy + 1) * clusterSize));
+            }
+        }
+
+        int cellCount = width * height;
+        entranceSlot = new int[cellCount];
+        Arrays.fill(entranceSlot, -1);
+        cost = new float[cellCount];
+        estimate = new float[cellCount];
+        parent = new int[cellCount];
+        openStamp = new int[cellCount];
+        closedStamp = new int[cellCount];
+        heap = new int[cellCount];
+        heapIndex = new int[cellCount];
+
+        startSearch = new ClusterSearch();
+        goalSearch = new ClusterSearch();
+
+        int nodeCount = graph.getNodeCount();
+        int edgeCount = graph.getEdgeCount();
+        incomingStart = new int[nodeCount + 1];
+        incomingFrom = new int[edgeCount];
+        incomingCost = new float[edgeCount];
+        for (int e = 0; e < edgeCount; e++) {
+            incomingStart[graph.getEdgeTarget(e) + 1]++;
+        }
+        for (int n = 0; n < nodeCount; n++) {
+            incomingStart[n + 1] += incomingStart[n];
+        }
+        int[] fill = Arrays.copyOf(incomingStart, nodeCount);
+        for (int n = 0; n < nodeCount; n++) {
+            for (int e = graph.getEdgeStart(n), end = graph.getEdgeEnd(n); e < end; e++) {
+                int slot = fill[graph.getEdgeTarget(e)]++;
+                incomingFrom[slot] = n;
+                incomingCost[slot] = graph.getEdgeCost(e);
+            }
+        }
+
+        for (Cluster cluster : clusters) {
+            rebuild(cluster);
+        }
+    }
+
+    // Searches the abstract graph from start to goal (node ids). Returns false if the goal
+    // can't be reached. Follow up with refine() for the concrete nodes of the first leg.
+    public boolean search(int start, int goal) {
+        abstractPath.clear();
+        expanded = 0;
+        pathCost = UNREACHABLE;
+        if (start < 0 || goal < 0) {
+            return false;
+        }
+
+        int startCell = cellOf(start);
+        int goalCell = cellOf(goal);
+        Cluster startCluster = clusterOf(start);
+        Cluster goalCluster = clusterOf(goal);
+
+        // Link the endpoints into the abstract graph for this query only
+        startSearch.run(start, startCluster, false);
+        goalSearch.run(goal, goalCluster, true);
+
+        nextSearch();
+        heapSize = 0;
+        cost[startCell] = 0;
+        parent[startCell] = -1;
+        open(startCell, heuristic(startCell, goalCell));
+
+        while (heapSize > 0) {
+            int cell = pop();
+            if (cell == goalCell) {
+                pathCost = cost[cell];
+                buildPath(goalCell);
+                return true;
+            }
+            closedStamp[cell] = searchId;
+            expanded++;
+            float cellCost = cost[cell];
+
+            Cluster cluster;
+            int slot = entranceSlot[cell];
+            if (cell == startCell) {
+                cluster = startCluster;
+                for (int i = 0; i < cluster.entrances.length; i++) {
+                    int entrance = cluster.entrances[i];
+                    if (!isExit(cluster, i) || entrance == startCell) {
+                        continue;
+                    }
+                    float d = startSearch.distanceTo(entrance);
+                    if (d != UNREACHABLE) {
+                        relax(cell, entrance, cellCost + d, goalCell);
+                    }
+                }
+                if (cluster == goalCluster) {
+                    float d = startSearch.distanceTo(goalCell);
+                    if (d != UNREACHABLE) {
+                        relax(cell, goalCell, cellCost + d, goalCell);
+                    }
+                }
+            } else {
+                cluster = clusterOfCell(cell);
+                for (int e = cluster.intraStart[slot], end = cluster.intraStart[slot + 1]; e < end; e++) {
+                    relax(cell, cluster.intraTarget[e], cellCost + cluster.intraCost[e], goalCell);
+                }
+                if (cluster == goalCluster) {
+                    float d = goalSearch.distanceTo(cell);
+                    if (d != UNREACHABLE) {
+                        relax(cell, goalCell, cellCost + d, goalCell);
+                    }
+                }
+            }
+
+            if (slot >= 0) {
+                for (int e = cluster.interStart[slot], end = cluster.interStart[slot + 1]; e < end; e++) {
+                    relax(cell, cluster.interTarget[e], cellCost + cluster.interCost[e], goalCell);
+                }
+            }
+        }
+        return false;
+    }
+
+    // Concrete node ids for the first leg of the last search: from the start to the first
+    // node in another cluster (or to the goal if it's in the start's cluster).
+    public void refine(IntArray outPath) {
+        outPath.clear();
+        if (abstractPath.size == 0) {
+            return;
+        }
+        int startCell = abstractPath.get(0);
+        if (abstractPath.size == 1) {
+            outPath.add(nodeOf(startCell));
+            return;
+        }
+
+        int first = abstractPath.get(1);
+        if (clusterOfCell(first) != clusterOfCell(startCell)) {
+            // Straight out of the cluster from the start
+            outPath.add(nodeOf(startCell));
+            outPath.add(nodeOf(first));
+            return;
+        }
+
+        // In-cluster leg, read back from the start's cluster search
+        int length = 0;
+        for (int node = nodeOf(first); node != -1; node = startSearch.parentOf(node)) {
+            length++;
+        }
+        int[] items = outPath.setSize(length);
+        for (int node = nodeOf(first), i = length - 1; node != -1; node = startSearch.parentOf(node), i--) {
+            items[i] = node;
+        }
+        // ...plus the hop into the next cluster if that's what comes after
+        if (abstractPath.size > 2 && clusterOfCell(abstractPath.get(2)) != clusterOfCell(first)) {
+            outPath.add(nodeOf(abstractPath.get(2)));
+        }
+    }
+
+    // Abstract waypoints of the last search as node ids, start and goal included
+    public void getAbstractPath(IntArray outPath) {
+        outPath.clear();
+        for (int i = 0; i < abstractPath.size; i++) {
+            outPath.add(nodeOf(abstractPath.get(i)));
+        }
+    }
+
+    public float getPathCost() {
+        return pathCost;
+    }
+
+    // Abstract nodes taken off the open list by the last search
+    public int getExpandedCount() {
+        return expanded;
+    }
+
+    public int getEntranceCount() {
+        int count = 0;
+        for (Cluster cluster : clusters) {
+            count += cluster.entrances.length;
+        }
+        return count;
+    }
+
+    public int getClusterCount() {
+        return clusters.length;
+    }
+
+    public CompactGraph getGraph() {
+        return graph;
+    }
+
+    private void rebuild(Cluster cluster) {
+        for (int entrance : cluster.entrances) {
+            entranceSlot[entrance] = -1;
+        }
+
+        // Entrances: nodes with a connection crossing the cluster edge in either direction
+        IntArray entrances = new IntArray();
+        IntArray interTarget = new IntArray();
+        IntArray interStart = new IntArray();
+        FloatArray interCost = new FloatArray();
+        for (int x = cluster.x0; x < cluster.x1; x++) {
+            for (int y = cluster.y0; y < cluster.y1; y++) {
+                int node = graph.getNode(x, y);
+                if (node < 0) {
+                    continue;
+                }
+                boolean entrance = false;
+                int firstInter = interTarget.size;
+                for (int e = graph.getEdgeStart(node), end = graph.getEdgeEnd(node); e < end; e++) {
+                    int target = graph.getEdgeTarget(e);
+                    if (!contains(cluster, target)) {
+                        interTarget.add(cellOf(target));
+                        interCost.add(graph.getEdgeCost(e));
+                        entrance = true;
+                    }
+                }
+                for (int e = incomingStart[node], end = incomingStart[node + 1]; e < end && !entrance; e++) {
+                    entrance = !contains(cluster, incomingFrom[e]);
+                }
+                if (entrance) {
+                    entranceSlot[x * height + y] = entrances.size;
+                    entrances.add(x * height + y);
+                    interStart.add(firstInter);
+                }
+            }
+        }
+        interStart.add(interTarget.size);
+
+        cluster.entrances = entrances.toArray();
+        cluster.interStart = interStart.toArray();
+        cluster.interTarget = interTarget.toArray();
+        cluster.interCost = interCost.toArray();
+
+        // Only routes that end somewhere we can leave from are worth keeping, and of those only
+        // the ones that don't already pass through another exit (that exit's own routes cover them)
+        int n = cluster.entrances.length;
+        float[] distances = new float[n * n];
+        for (int i = 0; i < n; i++) {
+            startSearch.run(nodeOf(cluster.entrances[i]), cluster, false);
+            for (int j = 0; j < n; j++) {
+                distances[i * n + j] = startSearch.distanceTo(cluster.entrances[j]);
+            }
+        }
+        IntArray intraStart = new IntArray(n + 1);
+        IntArray intraTarget = new IntArray();
+        FloatArray intraCost = new FloatArray();
+        for (int i = 0; i < n; i++) {
+            intraStart.add(intraTarget.size);
+            for (int j = 0; j < n; j++) {
+                float d = distances[i * n + j];
+                if (j == i || d == UNREACHABLE || !isExit(cluster, j)) {
+                    continue;
+                }
+                boolean covered = false;
+                for (int k = 0; k < n && !covered; k++) {
+                    covered = k != i && k != j && isExit(cluster, k)
+                            && distances[i * n + k] + distances[k * n + j] <= d + PRUNE_TOLERANCE;
+                }
+                if (!covered) {
+                    intraTarget.add(cluster.entrances[j]);
+                    intraCost.add(d);
+                }
+            }
+        }
+        intraStart.add(intraTarget.size);
+        cluster.intraStart = intraStart.toArray();
+        cluster.intraTarget = intraTarget.toArray();
+        cluster.intraCost = intraCost.toArray();
+    }
+
+    private boolean isExit(Cluster cluster, int slot) {
+        return cluster.interStart[slot] < cluster.interStart[slot + 1];
+    }
+
+    private void relax(int from, int cell, float newCost, int goalCell) {
+        if (closedStamp[cell] == searchId) {
+            return;
+        }
+        if (openStamp[cell] != searchId) {
+            cost[cell] = newCost;
+            parent[cell] = from;
+            open(cell, newCost + heuristic(cell, goalCell));
+        } else if (newCost < cost[cell]) {
+            cost[cell] = newCost;
+            parent[cell] = from;
+            estimate[cell] = newCost + heuristic(cell, goalCell);
+            siftUp(heapIndex[cell]);
+        }
+    }
+
+    private void buildPath(int goalCell) {
+        for (int cell = goalCell; cell != -1; cell = parent[cell]) {
+            abstractPath.add(cell);
+        }
+        abstractPath.reverse();
+    }
+
+    private void nextSearch() {
+        if (searchId == Integer.MAX_VALUE) {
+            Arrays.fill(openStamp, 0);
+            Arrays.fill(closedStamp, 0);
+            searchId = 0;
+        }
+        searchId++;
+    }
+
+    // Tighter than straight-line distance because it knows climbing costs double
+    private float heuristic(int cell, int goalCell) {
+        return NavGraphBuilder.minCost(goalCell / height - cell / height, goalCell % height - cell % height);
+    }
+
+    private int cellOf(int node) {
+        return graph.getX(node) * height + graph.getY(node);
+    }
+
+    private int nodeOf(int cell) {
+        return graph.getNode(cell / height, cell % height);
+    }
+
+    private Cluster clusterOf(int node) {
+        return clusters[(graph.getX(node) / clusterSize) * clustersY + graph.getY(node) / clusterSize];
+    }
+
+    private Cluster clusterOfCell(int cell) {
+        return clusters[(cell / height / clusterSize) * clustersY + (cell % height) / clusterSize];
+    }
+
+    private boolean contains(Cluster cluster, int node) {
+        int x = graph.getX(node);
+        int y = graph.getY(node);
+        return x >= cluster.x0 && x < cluster.x1 && y >= cluster.y0 && y < cluster.y1;
+    }
+
+    private void open(int cell, float f) {
+        openStamp[cell] = searchId;
+        estimate[cell] = f;
+        heap[heapSize] = cell;
+        heapIndex[cell] = heapSize;
+        siftUp(heapSize++);
+    }
+
+    private int pop() {
+        int top = heap[0];
+        heapSize--;
+        if (heapSize > 0) {
+            heap[0] = heap[heapSize];
+            heapIndex[heap[0]] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    // Lower estimate first; on a tie the cell further along, which cuts through the long
+    // plateaus of equal estimates that staggered ledges produce
+    private boolean before(int a, int b) {
+        return estimate[a] < estimate[b] || estimate[a] == estimate[b] && cost[a] > cost[b];
+    }
+
+    private void siftUp(int i) {
+        int cell = heap[i];
+        while (i > 0) {
+            int parentSlot = (i - 1) >> 1;
+            int parentCell = heap[parentSlot];
+            if (!before(cell, parentCell)) {
+                break;
+            }
+            heap[i] = parentCell;
+            heapIndex[parentCell] = i;
+            i = parentSlot;
+        }
+        heap[i] = cell;
+        heapIndex[cell] = i;
+    }
+
+    private void siftDown(int i) {
+        int cell = heap[i];
+        while (true) {
+            int child = (i << 1) + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && before(heap[child + 1], heap[child])) {
+                child++;
+            }
+            if (!before(heap[child], cell)) {
+                break;
+            }
+            heap[i] = heap[child];
+            heapIndex[heap[i]] = i;
+            i = child;
+        }
+        heap[i] = cell;
+        heapIndex[cell] = i;
+    }
+
+    /**
+     * Dijkstra confined to one cluster, forwards from a node or backwards to it. State is
+     * indexed by the cell's position inside the cluster, so it's sized to a single cluster.
+     */
+    private final class ClusterSearch {
+        private final float[] distance;
+        private final int[] parentNode;
+        private final int[] stamp;
+        private final int[] localHeap;
+        private final int[] localHeapIndex;
+        private final int[] localNode;
+        private int localHeapSize;
+        private int localSearchId;
+        private Cluster cluster;
+
+        ClusterSearch() {
+            int size = clusterSize * clusterSize;
+            distance = new float[size];
+            parentNode = new int[size];
+            stamp = new int[size];
+            localHeap = new int[size];
+            localHeapIndex = new int[size];
+            localNode = new int[size];
+        }
+
+        void run(int source, Cluster cluster, boolean backward) {
+            this.cluster = cluster;
+            if (localSearchId == Integer.MAX_VALUE) {
+                Arrays.fill(stamp, 0);
+                localSearchId = 0;
+            }
+            localSearchId++;
+            localHeapSize = 0;
+
+            reach(source, -1, 0);
+            while (localHeapSize > 0) {
+                int local = localPop();
+                int node = localNode[local];
+                float d = distance[local];
+                if (backward) {
+                    for (int e = incomingStart[node], end = incomingStart[node + 1]; e < end; e++) {
+                        reach(incomingFrom[e], node, d + incomingCost[e]);
+                    }
+                } else {
+                    for (int e = graph.getEdgeStart(node), end = graph.getEdgeEnd(node); e < end; e++) {
+                        reach(graph.getEdgeTarget(e), node, d + graph.getEdgeCost(e));
+                    }
+                }
+            }
+        }
+
+        // Cost between the source and a cell of the cluster, UNREACHABLE if there's no way
+        float distanceTo(int cell) {
+            int x = cell / height - cluster.x0;
+            int y = cell % height - cluster.y0;
+            if (x < 0 || y < 0 || x >= clusterSize || y >= clusterSize) {
+                return UNREACHABLE;
+            }
+            int local = x * clusterSize + y;
+            return stamp[local] == localSearchId ? distance[local] : UNREACHABLE;
+        }
+
+        // Previous node on the way back to the source (forward searches), -1 at the source
+        int parentOf(int node) {
+            return parentNode[(graph.getX(node) - cluster.x0) * clusterSize + graph.getY(node) - cluster.y0];
+        }
+
+        private void reach(int node, int from, float d) {
+            if (!contains(cluster, node)) {
+                return;
+            }
+            int local = (graph.getX(node) - cluster.x0) * clusterSize + graph.getY(node) - cluster.y0;
+            if (stamp[local] != localSearchId) {
+                stamp[local] = localSearchId;
+                distance[local] = d;
+                parentNode[local] = from;
+                localNode[local] = node;
+                localHeap[localHeapSize] = local;
+                localHeapIndex[local] = localHeapSize;
+                localSiftUp(localHeapSize++);
+            } else if (d < distance[local]) {
+                distance[local] = d;
+                parentNode[local] = from;
+                // Popped nodes are already final and never improve, so this one is still queued
+                localSiftUp(localHeapIndex[local]);
+            }
+        }
+
+        private int localPop() {
+            int top = localHeap[0];
+            localHeapSize--;
+            if (localHeapSize > 0) {
+                localHeap[0] = localHeap[localHeapSize];
+                localHeapIndex[localHeap[0]] = 0;
+                localSiftDown(0);
+            }
+            return top;
+        }
+
+        private void localSiftUp(int i) {
+            int local = localHeap[i];
+            float d = distance[local];
+            while (i > 0) {
+                int parentSlot = (i - 1) >> 1;
+                int parentLocal = localHeap[parentSlot];
+                if (distance[parentLocal] <= d) {
+                    break;
+                }
+                localHeap[i] = parentLocal;
+                localHeapIndex[parentLocal] = i;
+                i = parentSlot;
+            }
+            localHeap[i] = local;
+            localHeapIndex[local] = i;
+        }
+
+        private void localSiftDown(int i) {
+            int local = localHeap[i];
+            float d = distance[local];
+            while (true) {
+                int child = (i << 1) + 1;
+                if (child >= localHeapSize) {
+                    break;
+                }
+                if (child + 1 < localHeapSize && distance[localHeap[child + 1]] < distance[localHeap[child]]) {
+                    child++;
+                }
+                if (d <= distance[localHeap[child]]) {
+                    break;
+                }
+                localHeap[i] = localHeap[child];
+                localHeapIndex[localHeap[i]] = i;
+                i = child;
+            }
+            localHeap[i] = local;
+            localHeapIndex[local] = i;
+        }
+    }
+}
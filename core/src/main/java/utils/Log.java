@@ -0,0 +1,419 @@
+package utils;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Leveled logging for game code. Messages take "{}" placeholders filled from primitive or
+ * object arguments, so nothing is built (or boxed) when the level is off; check isDebugEnabled()
+ * before anything that needs extra work to produce its arguments.
+ *
+ * Enabled messages are formatted straight into a preallocated slot of a lock-free ring buffer
+ * and a background thread writes them to GameConstants.LOG_FILE, so the calling thread never
+ * waits on I/O. If the writer falls behind and the ring fills up, new messages are dropped and
+ * counted rather than blocking the game.
+ *
+ * The writer thread only starts, and only then opens (and truncates) the file, with the first
+ * message that gets past the level, so a JVM that never logs anything leaves no thread or file.
+ */
+public final class Log {
+    public enum Level {
+        DEBUG, INFO, WARN, ERROR, OFF
+    }
+
+    private static final int CAPACITY = Integer.highestOneBit(GameConstants.LOG_BUFFER_SIZE);
+    private static final int MASK = CAPACITY - 1;
+    private static final long IDLE_PARK_NANOS = 1000000;
+    private static final Level[] LEVELS = Level.values();
+
+    private static volatile int threshold = GameConstants.LOG_LEVEL.ordinal();
+
+    // Next sequence number to hand out, and the first one the writer hasn't finished with yet
+    private static final AtomicLong claimed = new AtomicLong();
+    private static final AtomicLong consumed = new AtomicLong();
+    private static final AtomicLong dropped = new AtomicLong();
+    // Per slot, the sequence number of the message it holds once that message is complete
+    private static final AtomicLongArray published = new AtomicLongArray(CAPACITY);
+    private static final StringBuilder[] messages = new StringBuilder[CAPACITY];
+    private static final byte[] levels = new byte[CAPACITY];
+    private static final long[] times = new long[CAPACITY];
+    private static final Throwable[] errors = new Throwable[CAPACITY];
+
+    private static final long startNanos = System.nanoTime();
+    private static volatile boolean running = true;
+    // Null until the first message is published
+    private static volatile Thread writer;
+
+    static {
+        for (int i = 0; i < CAPACITY; i++) {
+            messages[i] = new StringBuilder(128);
+            published.set(i, -1);
+        }
+    }
+
+    private Log() {
+    }
+
+    public static void setLevel(Level level) {
+        threshold = level.ordinal();
+    }
+
+    public static Level getLevel() {
+        return LEVELS[threshold];
+    }
+
+    public static boolean isDebugEnabled() {
+        return threshold <= Level.DEBUG.ordinal();
+    }
+
+    public static boolean isInfoEnabled() {
+        return threshold <= Level.INFO.ordinal();
+    }
+
+    public static boolean isEnabled(Level level) {
+        return threshold <= level.ordinal();
+    }
+
+    // Messages lost because the ring was full
+    public static long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public static void debug(String message) {
+        if (isDebugEnabled()) {
+            write(Level.DEBUG, message);
+        }
+    }
+
+    public static void debug(String pattern, int a) {
+        if (isDebugEnabled()) {
+            write(Level.DEBUG, pattern, a);
+        }
+    }
+
+    public static void debug(String pattern, int a, int b) {
+        if (isDebugEnabled()) {
+            write(Level.DEBUG, pattern, a, b);
+        }
+    }
+
+    public static void debug(String pattern, float a) {
+        if (isDebugEnabled()) {
+            write(Level.DEBUG, pattern, a);
+        }
+    }
+
+    public static void debug(String pattern, float a, float b) {
+        if (isDebugEnabled()) {
+            write(Level.DEBUG, pattern, a, b);
+        }
+    }
+
+    public static void debug(String pattern, Object a) {
+        if (isDebugEnabled()) {
+            write(Level.DEBUG, pattern, a);
+        }
+    }
+
+    public static void info(String message) {
+        if (isInfoEnabled()) {
+            write(Level.INFO, message);
+        }
+    }
+
+    public static void info(String pattern, int a) {
+        if (isInfoEnabled()) {
+            write(Level.INFO, pattern, a);
+        }
+    }
+
+    public static void info(String pattern, int a, int b) {
+        if (isInfoEnabled()) {
+            write(Level.INFO, pattern, a, b);
+        }
+    }
+
+    public static void info(String pattern, int a, int b, int c, int d) {
+        if (isInfoEnabled()) {
+            write(Level.INFO, pattern, a, b, c, d);
+        }
+    }
+
+    public static void info(String pattern, Object a) {
+        if (isInfoEnabled()) {
+            write(Level.INFO, pattern, a);
+        }
+    }
+
+    public static void warn(String message) {
+        if (isEnabled(Level.WARN)) {
+            write(Level.WARN, message);
+        }
+    }
+
+    public static void warn(String pattern, Object a) {
+        if (isEnabled(Level.WARN)) {
+            write(Level.WARN, pattern, a);
+        }
+    }
+
+    public static void error(String message) {
+        if (isEnabled(Level.ERROR)) {
+            write(Level.ERROR, message);
+        }
+    }
+
+    // The stack trace is printed by the writer thread
+    public static void error(String message, Throwable error) {
+        if (isEnabled(Level.ERROR)) {
+            long seq = claim();
+            if (seq >= 0) {
+                messages[slot(seq)].append(message);
+                errors[slot(seq)] = error;
+                publish(seq, Level.ERROR);
+            }
+        }
+    }
+
+    private static void write(Level level, String message) {
+        long seq = claim();
+        if (seq >= 0) {
+            messages[slot(seq)].append(message);
+            publish(seq, level);
+        }
+    }
+
+    private static void write(Level level, String pattern, int a) {
+        long seq = claim();
+        if (seq >= 0) {
+            StringBuilder sb = messages[slot(seq)];
+            int at = appendUntilArg(sb, pattern, 0);
+            sb.append(a);
+            sb.append(pattern, at, pattern.length());
+            publish(seq, level);
+        }
+    }
+
+    private static void write(Level level, String pattern, int a, int b) {
+        long seq = claim();
+        if (seq >= 0) {
+            StringBuilder sb = messages[slot(seq)];
+            int at = appendUntilArg(sb, pattern, 0);
+            sb.append(a);
+            at = appendUntilArg(sb, pattern, at);
+            sb.append(b);
+            sb.append(pattern, at, pattern.length());
+            publish(seq, level);
+        }
+    }
+
+    private static void write(Level level, String pattern, int a, int b, int c, int d) {
+        long seq = claim();
+        if (seq >= 0) {
+            StringBuilder sb = messages[slot(seq)];
+            int at = appendUntilArg(sb, pattern, 0);
+            sb.append(a);
+            at = appendUntilArg(sb, pattern, at);
+            sb.append(b);
+            at = appendUntilArg(sb, pattern, at);
+            sb.append(c);
+            at = appendUntilArg(sb, pattern, at);
+            sb.append(d);
+            sb.append(pattern, at, pattern.length());
+            publish(seq, level);
+        }
+    }
+
+    private static void write(Level level, String pattern, float a) {
+        long seq = claim();
+        if (seq >= 0) {
+            StringBuilder sb = messages[slot(seq)];
+            int at = appendUntilArg(sb, pattern, 0);
+            sb.append(a);
+            sb.append(pattern, at, pattern.length());
+            publish(seq, level);
+        }
+    }
+
+    private static void write(Level level, String pattern, float a, float b) {
+        long seq = claim();
+        if (seq >= 0) {
+            StringBuilder sb = messages[slot(seq)];
+            int at = appendUntilArg(sb, pattern, 0);
+            sb.append(a);
+            at = appendUntilArg(sb, pattern, at);
+            sb.append(b);
+            sb.append(pattern, at, pattern.length());
+            publish(seq, level);
+        }
+    }
+
+    private static void write(Level level, String pattern, Object a) {
+        long seq = claim();
+        if (seq >= 0) {
+            StringBuilder sb = messages[slot(seq)];
+            int at = appendUntilArg(sb, pattern, 0);
+            sb.append(a);
+            sb.append(pattern, at, pattern.length());
+            publish(seq, level);
+        }
+    }
+
+    // Copies the pattern up to the next "{}" and returns where to carry on after it. With no
+    // placeholder left the whole rest is copied and the argument ends up on the end.
+    private static int appendUntilArg(StringBuilder sb, String pattern, int from) {
+        int at = pattern.indexOf("{}", from);
+        if (at < 0) {
+            sb.append(pattern, from, pattern.length());
+            return pattern.length();
+        }
+        sb.append(pattern, from, at);
+        return at + 2;
+    }
+
+    // Reserves the next slot, or returns -1 (and counts a drop) if the writer hasn't freed it yet
+    private static long claim() {
+        while (true) {
+            long seq = claimed.get();
+            if (seq - consumed.get() >= CAPACITY) {
+                dropped.incrementAndGet();
+                return -1;
+            }
+            if (claimed.compareAndSet(seq, seq + 1)) {
+                messages[slot(seq)].setLength(0);
+                return seq;
+            }
+        }
+    }
+
+    private static void publish(long seq, Level level) {
+        int slot = slot(seq);
+        levels[slot] = (byte) level.ordinal();
+        times[slot] = System.nanoTime();
+        // Volatile write: everything above is visible to the writer once it sees this
+        published.set(slot, seq);
+        if (writer == null) {
+            startWriter();
+        }
+    }
+
+    // Messages published before this are still in the ring; the writer starts from the first
+    private static synchronized void startWriter() {
+        if (writer != null) {
+            return;
+        }
+        Thread thread = new Thread(Log::drainLoop, "log-writer");
+        thread.setDaemon(true);
+        writer = thread;
+        thread.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(Log::shutdown, "log-shutdown"));
+    }
+
+    private static int slot(long seq) {
+        return (int) (seq & MASK);
+    }
+
+    private static void drainLoop() {
+        PrintWriter out = openFile();
+        StringBuilder line = new StringBuilder(256);
+        long next = 0;
+        long reportedDrops = 0;
+        while (true) {
+            boolean stopping = !running;
+            int written = 0;
+            while (published.get(slot(next)) == next) {
+                int slot = slot(next);
+                Level level = LEVELS[levels[slot]];
+                line.setLength(0);
+                appendPrefix(line, times[slot], level);
+                line.append(messages[slot]);
+                Throwable error = errors[slot];
+                errors[slot] = null;
+                // Hand the slot back before the slow part
+                consumed.lazySet(++next);
+
+                writeLine(out, line, error, level);
+                written++;
+            }
+
+            long drops = dropped.get();
+            if (drops != reportedDrops) {
+                line.setLength(0);
+                line.append("Log buffer full, dropped ").append(drops - reportedDrops).append(" messages");
+                writeLine(out, line, null, Level.WARN);
+                reportedDrops = drops;
+            }
+
+            if (written == 0) {
+                if (out != null) {
+                    out.flush();
+                }
+                if (stopping) {
+                    break;
+                }
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+        if (out != null) {
+            out.close();
+        }
+    }
+
+    private static PrintWriter openFile() {
+        try {
+            Writer file = new FileWriter(GameConstants.LOG_FILE, false);
+            return new PrintWriter(new BufferedWriter(file));
+        } catch (IOException e) {
+            System.err.println("Can't open " + GameConstants.LOG_FILE + ", logging to the console only: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // [seconds since start] LEVEL
+    private static void appendPrefix(StringBuilder line, long time, Level level) {
+        long millis = (time - startNanos) / 1000000;
+        line.append('[').append(millis / 1000).append('.');
+        long fraction = millis % 1000;
+        if (fraction < 100) {
+            line.append('0');
+        }
+        if (fraction < 10) {
+            line.append('0');
+        }
+        line.append(fraction).append("] ").append(level.name()).append(' ');
+    }
+
+    private static void writeLine(PrintWriter out, StringBuilder line, Throwable error, Level level) {
+        if (out != null) {
+            out.append(line).println();
+            if (error != null) {
+                error.printStackTrace(out);
+            }
+        }
+        if (GameConstants.LOG_TO_CONSOLE) {
+            PrintStream console = level.ordinal() >= Level.WARN.ordinal() ? System.err : System.out;
+            console.println(line);
+            if (error != null) {
+                error.printStackTrace(console);
+            }
+        }
+    }
+
+    // Writes out whatever is still queued; runs at JVM shutdown
+    private static void shutdown() {
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
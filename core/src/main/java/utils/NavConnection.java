@@ -0,0 +1,28 @@
+package utils;
+
+import com.badlogic.gdx.ai.pfa.DefaultConnection;
+
+/** A move between two standable cells, with how it's made and what it costs. */
+public class NavConnection extends DefaultConnection<GridNode> {
+    public enum Type {
+        WALK, JUMP, FALL
+    }
+
+    private final Type type;
+    private final float cost;
+
+    public NavConnection(GridNode fromNode, GridNode toNode, Type type, float cost) {
+        super(fromNode, toNode);
+        this.type = type;
+        this.cost = cost;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    @Override
+    public float getCost() {
+        return cost;
+    }
+}
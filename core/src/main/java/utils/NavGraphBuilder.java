@@ -0,0 +1,264 @@
+package utils;
+
+import entities.Platform;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Builds the navigation graph for a level from its platforms. Every platform is rasterized into
+ * solid cells plus the row of cells an enemy can stand in on top of it. Standable cells are then
+ * linked by walk edges along a surface, fall edges off its ends and jump edges up to (or across
+ * to) other surfaces within the enemy's jump reach.
+ *
+ * Cells are one world unit square, matching how enemies look up their cell from their position.
+ * A streamed level builds a window of the world: column 0 is then world column originX.
+ */
+public class NavGraphBuilder {
+    private final int width;
+    private final int height;
+    private final float agentHalfHeight;
+    private int maxJumpHeight;
+    private int maxJumpDistance;
+    private int originX;
+
+    private boolean[] solid;
+    // A platform sits between this cell and the one above, so you can't move up or down through it
+    private boolean[] ceiling;
+    private boolean[] standable;
+
+    public NavGraphBuilder(int width, int height, float agentHalfHeight) {
+        this.width = width;
+        this.height = height;
+        this.agentHalfHeight = agentHalfHeight;
+        this.maxJumpHeight = 1;
+        this.maxJumpDistance = 2;
+    }
+
+    // How far up and across a jump edge may reach, in cells
+    public NavGraphBuilder setJumpReach(int maxJumpHeight, int maxJumpDistance) {
+        this.maxJumpHeight = maxJumpHeight;
+        this.maxJumpDistance = maxJumpDistance;
+        return this;
+    }
+
+    // World column the graph's column 0 stands for
+    public NavGraphBuilder setOriginX(int originX) {
+        this.originX = originX;
+        return this;
+    }
+
+    // Cheapest any route across (dx, dy) cells can be with the connection costs used here:
+    // every connection costs at least its horizontal distance plus twice its rise or once
+    // its drop. Never overestimates and never drops by more than a connection costs, so it
+    // works as an A* heuristic.
+    public static float minCost(int dx, int dy) {
+        return Math.abs(dx) + (dy > 0 ? 2 * dy : -dy);
+    }
+
+    // Jump height in whole cells for a body of the given mass pushed up by an impulse,
+    // capped so a floaty jump doesn't link half the level together
+    public static int jumpHeightCells(float impulse, float mass, float gravity, int cap) {
+        float velocity = impulse / mass;
+        float height = velocity * velocity / (2 * Math.abs(gravity));
+        return Math.max(0, Math.min(cap, (int) height));
+    }
+
+    public GridGraph build(List<Platform> platforms) {
+        return rebuild(new GridGraph(width, height), platforms);
+    }
+
+    // Replaces the cells and connections of an existing graph the same size as this builder's,
+    // keeping its node objects, so whatever holds on to the graph carries on working
+    public GridGraph rebuild(GridGraph graph, List<Platform> platforms) {
+        if (solid == null) {
+            solid = new boolean[width * height];
+            ceiling = new boolean[width * height];
+            standable = new boolean[width * height];
+        } else {
+            Arrays.fill(solid, false);
+            Arrays.fill(ceiling, false);
+            Arrays.fill(standable, false);
+        }
+
+        for (Platform platform : platforms) {
+            rasterize(platform);
+        }
+
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                graph.getNode(x, y).clear();
+            }
+        }
+        int standableCount = 0;
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                if (standable[index(x, y)] && !solid[index(x, y)]) {
+                    graph.getNode(x, y).setWalkable(true);
+                    standableCount++;
+                }
+            }
+        }
+
+        int walkEdges = 0;
+        int fallEdges = 0;
+        int jumpEdges = 0;
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                GridNode node = graph.getNode(x, y);
+                if (!node.isWalkable()) {
+                    continue;
+                }
+                for (int dir = -1; dir <= 1; dir += 2) {
+                    int nx = x + dir;
+                    if (nx < 0 || nx >= width || isSolid(nx, y)) {
+                        continue;
+                    }
+                    if (isStandable(graph, nx, y)) {
+                        node.addConnection(graph.getNode(nx, y), NavConnection.Type.WALK, 1);
+                        walkEdges++;
+                    } else {
+                        // Stepping off the end of a surface: drop to whatever is below
+                        int landY = dropTarget(graph, nx, y);
+                        if (landY >= 0) {
+                            int drop = y - landY;
+                            node.addConnection(graph.getNode(nx, landY), NavConnection.Type.FALL, 1 + drop);
+                            fallEdges++;
+                        }
+                    }
+                }
+                jumpEdges += addJumps(graph, node);
+            }
+        }
+
+        Log.info("Navigation graph: {} standable cells, {} walk, {} jump, {} fall edges", standableCount, walkEdges,
+                jumpEdges, fallEdges);
+        return graph;
+    }
+
+    private void rasterize(Platform platform) {
+        float left = platform.getX() - originX - platform.getWidth() / 2;
+        float right = platform.getX() - originX + platform.getWidth() / 2;
+        float bottom = platform.getY() - platform.getHeight() / 2;
+        float top = platform.getY() + platform.getHeight() / 2;
+
+        // Columns whose centre lies over the platform
+        int firstColumn = Math.max(0, (int) Math.ceil(left - 0.5f));
+        int lastColumn = Math.min(width - 1, (int) Math.floor(right - 0.5f));
+
+        // Rows the platform's body fills, judged at the cell centre
+        int firstRow = Math.max(0, (int) Math.ceil(bottom - 0.5f));
+        int lastRow = Math.min(height - 1, (int) Math.floor(top - 0.5f));
+        for (int x = firstColumn; x <= lastColumn; x++) {
+            for (int y = firstRow; y <= lastRow; y++) {
+                solid[index(x, y)] = true;
+            }
+        }
+
+        // The row an agent resting on top has its centre in
+        int surfaceRow = (int) (top + agentHalfHeight);
+        if (surfaceRow >= 0 && surfaceRow < height) {
+            for (int x = firstColumn; x <= lastColumn; x++) {
+                standable[index(x, surfaceRow)] = true;
+            }
+        }
+
+        // Thin platforms may not cover any cell centre, but still block the way between rows
+        int firstCeiling = Math.max(0, (int) Math.floor(bottom));
+        int lastCeiling = Math.min(height - 1, surfaceRow - 1);
+        for (int x = firstColumn; x <= lastColumn; x++) {
+            for (int y = firstCeiling; y <= lastCeiling; y++) {
+                ceiling[index(x, y)] = true;
+            }
+        }
+    }
+
+    // First standable cell below (x, y) with nothing solid in between, or -1
+    private int dropTarget(GridGraph graph, int x, int y) {
+        for (int ty = y - 1; ty >= 0; ty--) {
+            if (isSolid(x, ty) || hasCeiling(x, ty)) {
+                return -1;
+            }
+            if (isStandable(graph, x, ty)) {
+                return ty;
+            }
+        }
+        return -1;
+    }
+
+    // Jump edges from a cell to standable cells on other surfaces within reach
+    private int addJumps(GridGraph graph, GridNode from) {
+        int added = 0;
+        int x = from.getX();
+        int y = from.getY();
+        for (int dy = -maxJumpHeight; dy <= maxJumpHeight; dy++) {
+            for (int dx = -maxJumpDistance; dx <= maxJumpDistance; dx++) {
+                int tx = x + dx;
+                int ty = y + dy;
+                if (!isStandable(graph, tx, ty)) {
+                    continue;
+                }
+                // Walk edges already cover the same surface, and fall edges the step down off an end
+                if (dy == 0 && connectedAlongRow(graph, x, tx, y) || dy < 0 && Math.abs(dx) <= 1
+                        || dx == 0 && dy <= 0) {
+                    continue;
+                }
+                if (!clearJump(x, y, tx, ty)) {
+                    continue;
+                }
+                float cost = dy > 0 ? Math.abs(dx) + 2 * dy : Math.abs(dx) + Math.abs(dy);
+                from.addConnection(graph.getNode(tx, ty), NavConnection.Type.JUMP, cost);
+                added++;
+            }
+        }
+        return added;
+    }
+
+    private boolean connectedAlongRow(GridGraph graph, int x, int tx, int y) {
+        int step = tx > x ? 1 : -1;
+        for (int cx = x + step; cx != tx; cx += step) {
+            if (!isStandable(graph, cx, y)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Straight up (or across) from the take-off cell to the jump's peak row, then across to the target
+    private boolean clearJump(int x, int y, int tx, int ty) {
+        int peak = Math.max(y, ty);
+        for (int cy = y; cy < peak; cy++) {
+            if (hasCeiling(x, cy) || isSolid(x, cy + 1)) {
+                return false;
+            }
+        }
+        int step = tx > x ? 1 : -1;
+        for (int cx = x; cx != tx; cx += step) {
+            if (isSolid(cx + step, peak)) {
+                return false;
+            }
+        }
+        for (int cy = peak - 1; cy >= ty; cy--) {
+            if (hasCeiling(tx, cy) || isSolid(tx, cy)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isStandable(GridGraph graph, int x, int y) {
+        GridNode node = graph.getNode(x, y);
+        return node != null && node.isWalkable();
+    }
+
+    private boolean isSolid(int x, int y) {
+        return x < 0 || x >= width || y < 0 || y >= height || solid[index(x, y)];
+    }
+
+    private boolean hasCeiling(int x, int y) {
+        return x >= 0 && x < width && y >= 0 && y < height && ceiling[index(x, y)];
+    }
+
+    private int index(int x, int y) {
+        return x * height + y;
+    }
+}
@@ -0,0 +1,8 @@
+package utils;
+
+import com.badlogic.gdx.ai.pfa.GraphPath;
+
+/** Notified when a queued path search finishes. The path may be empty if there is no route. */
+public interface PathListener {
+    void pathFound(GridNode start, GridNode goal, GraphPath<GridNode> path);
+}
@@ -0,0 +1,179 @@
+package utils;
+
+import com.badlogic.gdx.ai.msg.MessageDispatcher;
+import com.badlogic.gdx.ai.msg.Telegram;
+import com.badlogic.gdx.ai.msg.Telegraph;
+import com.badlogic.gdx.ai.pfa.DefaultGraphPath;
+import com.badlogic.gdx.ai.pfa.PathFinderQueue;
+import com.badlogic.gdx.ai.pfa.PathFinderRequest;
+import com.badlogic.gdx.ai.pfa.indexed.IndexedAStarPathFinder;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.LongMap;
+import com.badlogic.gdx.utils.Pool;
+import com.badlogic.gdx.utils.TimeUtils;
+
+/**
+ * Runs queued path searches a slice at a time using gdx-ai's interruptible PathFinderQueue, so
+ * a burst of requests is spread over several frames instead of blowing one of them.
+ * Requests for the same (start, goal) that are already queued share one search.
+ */
+public class PathRequestScheduler implements Telegraph {
+    private static final int MSG_PATH_REQUEST = 1;
+    private static final int MSG_PATH_RESPONSE = 2;
+
+    /** Receives every finished search before its listeners do. */
+    public interface Callback {
+        void searchFinished(long key, GridNode start, GridNode goal, DefaultGraphPath<GridNode> path);
+    }
+
+    private static class Request extends PathFinderRequest<GridNode> implements Pool.Poolable {
+        long key;
+        int submitFrame;
+        int epoch;
+        final Array<PathListener> listeners = new Array<>(false, 4);
+
+        @Override
+        public void reset() {
+            startNode = null;
+            endNode = null;
+            resultPath = null;
+            listeners.clear();
+        }
+    }
+
+    private final PathFinderQueue<GridNode> queue;
+    private final MessageDispatcher dispatcher;
+    private final MyHeuristic heuristic;
+    private final Callback callback;
+    private final LongMap<Request> pending;
+    private final Pool<Request> requestPool;
+
+    private long budgetNanos;
+    private int frame;
+    // Bumped by discardPending; answers to requests from an older epoch are thrown away
+    private int epoch;
+
+    // Metrics
+    private int maxQueueDepth;
+    private int completed;
+    private long totalLatencyFrames;
+    private int maxLatencyFrames;
+    private long lastRunNanos;
+
+    public PathRequestScheduler(GridGraph graph, int budgetMicros, Callback callback) {
+        this.queue = new PathFinderQueue<>(new IndexedAStarPathFinder<>(graph));
+        this.dispatcher = new MessageDispatcher();
+        this.heuristic = new MyHeuristic();
+        this.callback = callback;
+        this.pending = new LongMap<>();
+        this.requestPool = new Pool<Request>() {
+            @Override
+            protected Request newObject() {
+                return new Request();
+            }
+        };
+        setBudgetMicros(budgetMicros);
+    }
+
+    // Queues a search, or joins the one already queued for the same cells
+    public void submit(long key, GridNode start, GridNode goal, PathListener listener) {
+        Request request = pending.get(key);
+        if (request == null) {
+            request = requestPool.obtain();
+            request.key = key;
+            request.submitFrame = frame;
+            request.epoch = epoch;
+            request.startNode = start;
+            request.endNode = goal;
+            request.heuristic = heuristic;
+            // Each result goes into the shared cache, so it needs its own path object
+            request.resultPath = new DefaultGraphPath<>();
+            request.dispatcher = dispatcher;
+            request.responseMessageCode = MSG_PATH_RESPONSE;
+            pending.put(key, request);
+            dispatcher.dispatchMessage(this, queue, MSG_PATH_REQUEST, request);
+            maxQueueDepth = Math.max(maxQueueDepth, pending.size);
+        }
+        if (!request.listeners.contains(listener, true)) {
+            request.listeners.add(listener);
+        }
+    }
+
+    // Called once per frame: searches until the time budget runs out
+    public void update() {
+        frame++;
+        if (pending.size == 0) {
+            lastRunNanos = 0;
+            return;
+        }
+        long start = TimeUtils.nanoTime();
+        queue.run(budgetNanos);
+        lastRunNanos = TimeUtils.nanoTime() - start;
+    }
+
+    // The queue sends each finished request back to us through the dispatcher
+    @Override
+    public boolean handleMessage(Telegram msg) {
+        if (msg.message != MSG_PATH_RESPONSE) {
+            return false;
+        }
+        Request request = (Request) msg.extraInfo;
+        if (request.epoch != epoch) {
+            requestPool.free(request);
+            return true;
+        }
+        pending.remove(request.key);
+
+        int latency = frame - request.submitFrame;
+        completed++;
+        totalLatencyFrames += latency;
+        maxLatencyFrames = Math.max(maxLatencyFrames, latency);
+
+        DefaultGraphPath<GridNode> path = (DefaultGraphPath<GridNode>) request.resultPath;
+        callback.searchFinished(request.key, request.startNode, request.endNode, path);
+        for (int i = 0; i < request.listeners.size; i++) {
+            request.listeners.get(i).pathFound(request.startNode, request.endNode, path);
+        }
+        requestPool.free(request);
+        return true;
+    }
+
+    // Forgets every queued search, e.g. because the graph was rebuilt under them. The queue
+    // still runs them out, but nobody hears the answers.
+    public void discardPending() {
+        epoch++;
+        pending.clear();
+    }
+
+    public void setBudgetMicros(int budgetMicros) {
+        this.budgetNanos = budgetMicros * 1000L;
+    }
+
+    public int getBudgetMicros() {
+        return (int) (budgetNanos / 1000);
+    }
+
+    public int getQueueDepth() {
+        return pending.size;
+    }
+
+    public int getMaxQueueDepth() {
+        return maxQueueDepth;
+    }
+
+    public int getCompletedRequests() {
+        return completed;
+    }
+
+    public float getAverageLatencyFrames() {
+        return completed == 0 ? 0 : totalLatencyFrames / (float) completed;
+    }
+
+    public int getMaxLatencyFrames() {
+        return maxLatencyFrames;
+    }
+
+    public long getLastRunNanos() {
+        return lastRunNanos;
+    }
+}
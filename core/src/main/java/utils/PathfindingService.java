@@ -0,0 +1,275 @@
+package utils;
+
+import com.badlogic.gdx.ai.pfa.DefaultGraphPath;
+import com.badlogic.gdx.ai.pfa.GraphPath;
+import com.badlogic.gdx.ai.pfa.Heuristic;
+import com.badlogic.gdx.ai.pfa.indexed.IndexedAStarPathFinder;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.LongMap;
+import com.badlogic.gdx.utils.Pool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pathfinding shared by every enemy on a GridGraph. Paths are cached by (start, goal) so
+ * enemies standing in the same cells reuse one search, and searches borrow a path finder
+ * from a small pool instead of each enemy owning one sized to the whole graph.
+ * Cache misses can also be queued with requestPath and searched under a per-frame budget.
+ * For big levels, findHierarchicalPath answers long queries a leg at a time from HPA*.
+ *
+ * Returned paths are shared between callers and must not be modified.
+ *
+ * Only the read-only lookups (getCachedPath, getCachedLeg, getPreparedFlowStep, getNodeAt,
+ * getWorldX) may be called from several threads at once, and only while nothing else is
+ * calling into the service; everything else belongs to the simulation thread.
+ */
+public class PathfindingService implements PathRequestScheduler.Callback {
+    private static final int MAX_CACHED_PATHS = 256;
+    private static final int MAX_PATH_FINDERS = 4;
+    private static final int MAX_SNAP_CELLS = 3;
+
+    // Handed out when there is nothing to search, e.g. an endpoint outside the grid
+    private static final GraphPath<GridNode> NO_PATH = new DefaultGraphPath<>();
+
+    private final GridGraph graph;
+    private final Heuristic<GridNode> heuristic;
+    private final Pool<IndexedAStarPathFinder<GridNode>> pathFinders;
+
+    // Failed searches are cached too (as empty paths) so they aren't retried every tick
+    private final LongMap<GraphPath<GridNode>> cache;
+    // Keys in insertion order; the oldest entry is evicted once the cache is full
+    private final long[] cacheOrder;
+    private int cacheOrderNext;
+
+    private final PathRequestScheduler scheduler;
+
+    // World column of the graph's column 0; non-zero when the graph is a window on a streamed level
+    private int originX;
+
+    // Built on first use; shared by every enemy in flow-field mode
+    private FlowField flowField;
+    // Built on first use too, and built afresh the first time it's needed after the graph changes
+    private HierarchicalPathfinder hierarchical;
+    private final IntArray hierarchicalLeg = new IntArray();
+
+    // Counted from the read-only lookups as well, which may be on several threads at once
+    private final AtomicInteger hits = new AtomicInteger();
+    private int misses;
+
+    public PathfindingService(GridGraph graph) {
+        this.graph = graph;
+        this.heuristic = new MyHeuristic();
+        this.pathFinders = new Pool<IndexedAStarPathFinder<GridNode>>(1, MAX_PATH_FINDERS) {
+            @Override
+            protected IndexedAStarPathFinder<GridNode> newObject() {
+                return new IndexedAStarPathFinder<>(PathfindingService.this.graph);
+            }
+        };
+        this.cache = new LongMap<>(MAX_CACHED_PATHS);
+        this.cacheOrder = new long[MAX_CACHED_PATHS];
+        this.cacheOrderNext = 0;
+        this.scheduler = new PathRequestScheduler(graph, GameConstants.PATHFINDING_BUDGET_MICROS, this);
+    }
+
+    // Returns the cached path between two cells, searching only if it isn't known yet
+    public GraphPath<GridNode> findPath(GridNode start, GridNode goal) {
+        if (start == null || goal == null) {
+            return NO_PATH;
+        }
+
+        long key = key(start, goal);
+        GraphPath<GridNode> path = cache.get(key);
+        if (path != null) {
+            hits.incrementAndGet();
+            return path;
+        }
+
+        misses++;
+        path = new DefaultGraphPath<>();
+        IndexedAStarPathFinder<GridNode> pathFinder = pathFinders.obtain();
+        pathFinder.searchNodePath(start, goal, heuristic, path);
+        pathFinders.free(pathFinder);
+
+        store(key, path);
+        return path;
+    }
+
+    // Returns the cached path if there is one. Otherwise queues a search and returns null;
+    // the listener hears about the result on a later update().
+    public GraphPath<GridNode> requestPath(GridNode start, GridNode goal, PathListener listener) {
+        if (start == null || goal == null) {
+            return NO_PATH;
+        }
+
+        long key = key(start, goal);
+        GraphPath<GridNode> path = cache.get(key);
+        if (path != null) {
+            hits.incrementAndGet();
+            return path;
+        }
+
+        scheduler.submit(key, start, goal, listener);
+        return null;
+    }
+
+    // The cached path between two cells, or null if nobody has searched for it yet. Never
+    // searches or queues anything.
+    public GraphPath<GridNode> getCachedPath(GridNode start, GridNode goal) {
+        if (start == null || goal == null) {
+            return NO_PATH;
+        }
+        return countHit(cache.get(key(start, goal)));
+    }
+
+    private GraphPath<GridNode> countHit(GraphPath<GridNode> path) {
+        if (path != null) {
+            hits.incrementAndGet();
+        }
+        return path;
+    }
+
+    // Runs queued searches; call once per frame
+    public void update() {
+        scheduler.update();
+    }
+
+    @Override
+    public void searchFinished(long key, GridNode start, GridNode goal, DefaultGraphPath<GridNode> path) {
+        misses++;
+        if (!cache.containsKey(key)) {
+            store(key, path);
+        }
+    }
+
+    private long key(GridNode start, GridNode goal) {
+        return (long) graph.getIndex(start) * graph.getNodeCount() + graph.getIndex(goal);
+    }
+
+    private void store(long key, GraphPath<GridNode> path) {
+        if (cache.size >= MAX_CACHED_PATHS) {
+            cache.remove(cacheOrder[cacheOrderNext]);
+        }
+        cache.put(key, path);
+        cacheOrder[cacheOrderNext] = key;
+        cacheOrderNext = (cacheOrderNext + 1) % MAX_CACHED_PATHS;
+    }
+
+    // Builds the shared flow field toward the goal so that getPreparedFlowStep can read it; the
+    // field is only rebuilt when the goal changes cell
+    public void prepareFlowField(GridNode goal) {
+        if (flowField == null) {
+            flowField = new FlowField(graph);
+        }
+        flowField.update(goal);
+    }
+
+    // Next cell toward the goal from the shared flow field. Only reads the field, so it's null
+    // unless prepareFlowField was called with this goal; null too at the goal or when the goal
+    // can't be reached.
+    public GridNode getPreparedFlowStep(GridNode from, GridNode goal) {
+        FlowField field = flowField;
+        if (field == null || field.getGoal() != goal) {
+            return null;
+        }
+        return field.getNextStep(from);
+    }
+
+    // The route from start toward the goal as far as the first cell past the start's cluster
+    // (or all the way, if the goal is in it). Ask again from the end of the leg for the next one.
+    // Empty when the goal can't be reached.
+    public GraphPath<GridNode> findHierarchicalPath(GridNode start, GridNode goal) {
+        if (start == null || goal == null) {
+            return NO_PATH;
+        }
+        if (hierarchical == null) {
+            hierarchical = new HierarchicalPathfinder(new CompactGraph(graph), GameConstants.PATHFINDING_CLUSTER_SIZE);
+        }
+
+        long key = legKey(start, goal);
+        GraphPath<GridNode> cached = cache.get(key);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached;
+        }
+
+        misses++;
+        CompactGraph compact = hierarchical.getGraph();
+        DefaultGraphPath<GridNode> leg = new DefaultGraphPath<>();
+        if (hierarchical.search(compact.getNode(start.getX(), start.getY()), compact.getNode(goal.getX(), goal.getY()))) {
+            hierarchical.refine(hierarchicalLeg);
+            for (int i = 0; i < hierarchicalLeg.size; i++) {
+                int node = hierarchicalLeg.get(i);
+                leg.add(graph.getNode(compact.getX(node), compact.getY(node)));
+            }
+        }
+        store(key, leg);
+        return leg;
+    }
+
+    // The cached leg findHierarchicalPath would return, or null if it would have to search
+    public GraphPath<GridNode> getCachedLeg(GridNode start, GridNode goal) {
+        if (start == null || goal == null) {
+            return NO_PATH;
+        }
+        return countHit(cache.get(legKey(start, goal)));
+    }
+
+    // Legs share the cache with full paths, keyed past the end of the full paths' range
+    private long legKey(GridNode start, GridNode goal) {
+        return key(start, goal) + (long) graph.getNodeCount() * graph.getNodeCount();
+    }
+
+    // Drops every cached path; call this whenever the graph changes
+    public void invalidate() {
+        cache.clear();
+        cacheOrderNext = 0;
+        flowField = null;
+        hierarchical = null;
+    }
+
+    // The graph has been rebuilt in place as a window starting at the given world column. Cached
+    // and queued paths are dropped; anyone holding nodes from before should ask again.
+    public void graphRebuilt(int originX) {
+        this.originX = originX;
+        invalidate();
+        scheduler.discardPending();
+    }
+
+    // The grid cell containing a world position, or null if it's outside the grid. Mid-air
+    // positions snap down to the surface just below, so jumping doesn't lose the path.
+    public GridNode getNodeAt(float x, float y) {
+        int cellX = (int) Math.floor(x) - originX;
+        GridNode node = graph.getNode(cellX, (int) y);
+        for (int i = 1; node != null && !node.isWalkable() && i <= MAX_SNAP_CELLS; i++) {
+            GridNode below = graph.getNode(cellX, (int) y - i);
+            if (below != null && below.isWalkable()) {
+                return below;
+            }
+        }
+        return node;
+    }
+
+    // World column of a node's cell
+    public int getWorldX(GridNode node) {
+        return node.getX() + originX;
+    }
+
+    public int getOriginX() {
+        return originX;
+    }
+
+    public PathRequestScheduler getScheduler() {
+        return scheduler;
+    }
+
+    public GridGraph getGraph() {
+        return graph;
+    }
+
+    public int getCacheHits() {
+        return hits.get();
+    }
+
+    public int getCacheMisses() {
+        return misses;
+    }
+}
@@ -0,0 +1,274 @@
+package utils;
+
+import com.badlogic.gdx.utils.Array;
+import java.util.Arrays;
+
+/**
+ * A uniform grid of square cells over the whole (unbounded) world, hashed into a fixed number
+ * of buckets, holding items by their axis-aligned bounds. Queries only look at the items in
+ * the cells they cover.
+ *
+ * It can be used two ways. Long-lived contents are added and removed one at a time and moved
+ * with update(), which only refiles an item when the cells it covers change, so things that
+ * move a little each frame cost a bounds write (RenderSystem, GameWorld's platforms). Or, made
+ * with movable false, it's cleared and refilled every tick, for things that all move anyway
+ * (CombatSystem's hurtboxes); items can't be moved or removed then, but adding one only chains
+ * an entry into each cell's bucket, without the back links removal needs.
+ *
+ * Each item gets a handle from add() that stays its own until it's removed; handles of removed
+ * items are handed out again, and after clear() they start from 0 again in the order items are
+ * added. Nothing is allocated once the arrays have grown to fit the most items and cells at once.
+ */
+public class SpatialGrid<T> {
+    private static final int NONE = -1;
+
+    private final float cellSize;
+    private final int mask;
+    private final boolean movable;
+    // First entry in each bucket; entries chain through entryNext, and back through entryPrev
+    // in a movable grid
+    private final int[] heads;
+    // One entry per cell an item covers; a movable item's entries chain through entrySibling
+    private int[] entryItem = new int[64];
+    private int[] entryBucket = new int[64];
+    private int[] entryNext = new int[64];
+    private int[] entryPrev = new int[64];
+    private int[] entrySibling = new int[64];
+    private int entryCount;
+    // Removed entries, chained through entryNext
+    private int freeEntry = NONE;
+
+    private Object[] items = new Object[16];
+    // min x, min y, max x, max y of each item, and the cells they cover
+    private float[] bounds = new float[64];
+    private int[] cells = new int[64];
+    private int[] firstEntry = new int[16];
+    // Last query each item was reported to, so items spanning several cells come back once
+    private int[] stamps = new int[16];
+    private int itemCount;
+    // Handles of removed items, chained through firstEntry
+    private int freeItem = NONE;
+    private int size;
+    private int query;
+
+    public SpatialGrid(float cellSize, int bucketCount) {
+        this(cellSize, bucketCount, true);
+    }
+
+    // bucketCount is rounded up to a power of two; without movable, only clear() takes items out
+    public SpatialGrid(float cellSize, int bucketCount, boolean movable) {
+        this.cellSize = cellSize;
+        this.movable = movable;
+        int buckets = Integer.highestOneBit(Math.max(1, bucketCount - 1)) << 1;
+        this.mask = buckets - 1;
+        this.heads = new int[buckets];
+        Arrays.fill(heads, NONE);
+    }
+
+    // Removes everything at once; much cheaper than removing items one by one
+    public void clear() {
+        if (itemCount > 0) {
+            Arrays.fill(heads, NONE);
+            // Let go of the items; the rest is overwritten as handles are reused
+            Arrays.fill(items, 0, itemCount, null);
+        }
+        entryCount = 0;
+        freeEntry = NONE;
+        itemCount = 0;
+        freeItem = NONE;
+        size = 0;
+    }
+
+    // Adds an item and returns its handle
+    public int add(T item, float minX, float minY, float maxX, float maxY) {
+        int id;
+        if (freeItem != NONE) {
+            id = freeItem;
+            freeItem = firstEntry[id];
+        } else {
+            id = itemCount++;
+            if (items.length < itemCount) {
+                items = Arrays.copyOf(items, items.length * 2);
+                bounds = Arrays.copyOf(bounds, bounds.length * 2);
+                cells = Arrays.copyOf(cells, cells.length * 2);
+                firstEntry = Arrays.copyOf(firstEntry, firstEntry.length * 2);
+                stamps = Arrays.copyOf(stamps, stamps.length * 2);
+            }
+        }
+        items[id] = item;
+        stamps[id] = query;
+        setBounds(id, minX, minY, maxX, maxY);
+        if (movable) {
+            firstEntry[id] = NONE;
+            setCells(id, minX, minY, maxX, maxY);
+            file(id);
+        } else {
+            fileForward(id, minX, minY, maxX, maxY);
+        }
+        size++;
+        return id;
+    }
+
+    // Moves an item to new bounds
+    public void update(int id, float minX, float minY, float maxX, float maxY) {
+        checkMovable();
+        setBounds(id, minX, minY, maxX, maxY);
+        int c = id * 4;
+        if (cells[c] == cell(minX) && cells[c + 1] == cell(minY) && cells[c + 2] == cell(maxX)
+                && cells[c + 3] == cell(maxY)) {
+            return;
+        }
+        unfile(id);
+        setCells(id, minX, minY, maxX, maxY);
+        file(id);
+    }
+
+    public void remove(int id) {
+        checkMovable();
+        unfile(id);
+        items[id] = null;
+        firstEntry[id] = freeItem;
+        freeItem = id;
+        size--;
+    }
+
+    public T get(int id) {
+        @SuppressWarnings("unchecked")
+        T item = (T) items[id];
+        return item;
+    }
+
+    // Adds every item overlapping the given box to out, each once; returns how many
+    public int query(float minX, float minY, float maxX, float maxY, Array<? super T> out) {
+        query++;
+        int found = 0;
+        int cellMaxX = cell(maxX);
+        int cellMaxY = cell(maxY);
+        for (int cellX = cell(minX); cellX <= cellMaxX; cellX++) {
+            for (int cellY = cell(minY); cellY <= cellMaxY; cellY++) {
+                // Other cells share the bucket too; the bounds test sorts them out
+                for (int entry = heads[bucket(cellX, cellY)]; entry != NONE; entry = entryNext[entry]) {
+                    int id = entryItem[entry];
+                    if (stamps[id] == query) {
+                        continue;
+                    }
+                    stamps[id] = query;
+                    int b = id * 4;
+                    if (bounds[b] <= maxX && minX <= bounds[b + 2] && bounds[b + 1] <= maxY && minY <= bounds[b + 3]) {
+                        out.add(get(id));
+                        found++;
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void setBounds(int id, float minX, float minY, float maxX, float maxY) {
+        int b = id * 4;
+        bounds[b] = minX;
+        bounds[b + 1] = minY;
+        bounds[b + 2] = maxX;
+        bounds[b + 3] = maxY;
+    }
+
+    private void setCells(int id, float minX, float minY, float maxX, float maxY) {
+        int c = id * 4;
+        cells[c] = cell(minX);
+        cells[c + 1] = cell(minY);
+        cells[c + 2] = cell(maxX);
+        cells[c + 3] = cell(maxY);
+    }
+
+    // Puts an entry for the item in every cell it covers
+    private void file(int id) {
+        int c = id * 4;
+        for (int cellX = cells[c]; cellX <= cells[c + 2]; cellX++) {
+            for (int cellY = cells[c + 1]; cellY <= cells[c + 3]; cellY++) {
+                int entry = newEntry();
+                int bucket = bucket(cellX, cellY);
+                entryItem[entry] = id;
+                entryBucket[entry] = bucket;
+                entryPrev[entry] = NONE;
+                entryNext[entry] = heads[bucket];
+                if (heads[bucket] != NONE) {
+                    entryPrev[heads[bucket]] = entry;
+                }
+                heads[bucket] = entry;
+                entrySibling[entry] = firstEntry[id];
+                firstEntry[id] = entry;
+            }
+        }
+    }
+
+    // Like file(), but only chains each entry forward, for grids that are only ever cleared
+    private void fileForward(int id, float minX, float minY, float maxX, float maxY) {
+        int cellMaxX = cell(maxX);
+        int cellMaxY = cell(maxY);
+        for (int cellX = cell(minX); cellX <= cellMaxX; cellX++) {
+            for (int cellY = cell(minY); cellY <= cellMaxY; cellY++) {
+                int entry = newEntry();
+                int bucket = bucket(cellX, cellY);
+                entryItem[entry] = id;
+                entryNext[entry] = heads[bucket];
+                heads[bucket] = entry;
+            }
+        }
+    }
+
+    private void unfile(int id) {
+        int entry = firstEntry[id];
+        while (entry != NONE) {
+            int sibling = entrySibling[entry];
+            int next = entryNext[entry];
+            int prev = entryPrev[entry];
+            if (prev == NONE) {
+                heads[entryBucket[entry]] = next;
+            } else {
+                entryNext[prev] = next;
+            }
+            if (next != NONE) {
+                entryPrev[next] = prev;
+            }
+            entryNext[entry] = freeEntry;
+            freeEntry = entry;
+            entry = sibling;
+        }
+        firstEntry[id] = NONE;
+    }
+
+    private int newEntry() {
+        if (freeEntry != NONE) {
+            int entry = freeEntry;
+            freeEntry = entryNext[entry];
+            return entry;
+        }
+        if (entryCount == entryItem.length) {
+            int length = entryCount * 2;
+            entryItem = Arrays.copyOf(entryItem, length);
+            entryBucket = Arrays.copyOf(entryBucket, length);
+            entryNext = Arrays.copyOf(entryNext, length);
+            entryPrev = Arrays.copyOf(entryPrev, length);
+            entrySibling = Arrays.copyOf(entrySibling, length);
+        }
+        return entryCount++;
+    }
+
+    private void checkMovable() {
+        if (!movable) {
+            throw new IllegalStateException("Items in this grid can only be cleared all at once");
+        }
+    }
+
+    private int cell(float coordinate) {
+        return (int) Math.floor(coordinate / cellSize);
+    }
+
+    private int bucket(int cellX, int cellY) {
+        return (cellX * 0x8DA6B343 ^ cellY * 0xD8163841) & mask;
+    }
+}
@@ -0,0 +1,193 @@
+package utils;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.physics.box2d.BodyDef;
+import com.badlogic.gdx.physics.box2d.ChainShape;
+import com.badlogic.gdx.physics.box2d.FixtureDef;
+import com.badlogic.gdx.physics.box2d.PolygonShape;
+import com.badlogic.gdx.physics.box2d.Shape;
+import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+import entities.Platform;
+
+/**
+ * Turns the platform rectangles of one region (a chunk, or a whole fixed level) into a single
+ * static body. Rectangles that touch or overlap along a row (same top and bottom) or a column
+ * (same left and right) are merged first, which leaves fewer broadphase proxies and no seams
+ * inside a surface for anything to catch on. Each merged rectangle becomes a box fixture, except
+ * where it runs into an edge the region shares with a neighbour: there its outline is an open
+ * ChainShape whose ghost vertices carry on into the neighbour, so crossing from one region's
+ * body onto the next is just as smooth.
+ *
+ * The Platforms handed back are the rectangles as added, all pointing at the shared body, for
+ * rendering and navigation. The body's user data is the same array.
+ */
+public class StaticGeometryBuilder {
+    private static final float EPSILON = 1e-3f;
+    // How far ghost vertices reach past an open end
+    private static final float GHOST_LENGTH = 1;
+
+    private final World world;
+    // left, bottom, right, top of each rectangle added since the last build
+    private final FloatArray rects = new FloatArray();
+    private float sharedMinX = Float.NEGATIVE_INFINITY;
+    private float sharedMaxX = Float.POSITIVE_INFINITY;
+    private boolean merge = true;
+
+    public StaticGeometryBuilder(World world) {
+        this.world = world;
+    }
+
+    // A platform box centred on (x, y), as Platform has always described them
+    public StaticGeometryBuilder add(float x, float y, float width, float height) {
+        rects.add(x - width / 2, y - height / 2, x + width / 2, y + height / 2);
+        return this;
+    }
+
+    // The region's left and right edges, where the level carries on into a neighbouring region
+    public StaticGeometryBuilder setSharedEdges(float minX, float maxX) {
+        sharedMinX = minX;
+        sharedMaxX = maxX;
+        return this;
+    }
+
+    // Off builds one body and box per rectangle, the way platforms used to be made; for comparison
+    public StaticGeometryBuilder setMerge(boolean merge) {
+        this.merge = merge;
+        return this;
+    }
+
+    // Creates the body (or bodies, with merging off) and starts over for the next region
+    public Array<Platform> build() {
+        Array<Platform> platforms = new Array<>(rects.size / 4);
+        if (merge) {
+            buildMerged(platforms);
+        } else {
+            buildSeparate(platforms);
+        }
+        rects.clear();
+        sharedMinX = Float.NEGATIVE_INFINITY;
+        sharedMaxX = Float.POSITIVE_INFINITY;
+        return platforms;
+    }
+
+    private void buildMerged(Array<Platform> platforms) {
+        Body body = createBody(0, 0);
+        for (int i = 0; i < rects.size; i += 4) {
+            platforms.add(toPlatform(body, i));
+        }
+        body.setUserData(platforms);
+
+        float[] merged = rects.toArray();
+        int count = mergeRects(merged, merged.length / 4);
+        for (int i = 0; i < count; i++) {
+            addFixtures(body, merged[i * 4], merged[i * 4 + 1], merged[i * 4 + 2], merged[i * 4 + 3]);
+        }
+    }
+
+    private void buildSeparate(Array<Platform> platforms) {
+        PolygonShape shape = new PolygonShape();
+        for (int i = 0; i < rects.size; i += 4) {
+            float width = rects.get(i + 2) - rects.get(i);
+            float height = rects.get(i + 3) - rects.get(i + 1);
+            Body body = createBody(rects.get(i) + width / 2, rects.get(i + 1) + height / 2);
+            shape.setAsBox(width / 2, height / 2);
+            createFixture(body, shape);
+            Platform platform = toPlatform(body, i);
+            body.setUserData(platform);
+            platforms.add(platform);
+        }
+        shape.dispose();
+    }
+
+    // Merges in place until nothing else touches; returns how many rectangles are left at the front
+    private static int mergeRects(float[] r, int count) {
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int i = 0; i < count; i++) {
+                for (int j = i + 1; j < count; j++) {
+                    if (!touches(r, i * 4, j * 4)) {
+                        continue;
+                    }
+                    r[i * 4] = Math.min(r[i * 4], r[j * 4]);
+                    r[i * 4 + 1] = Math.min(r[i * 4 + 1], r[j * 4 + 1]);
+                    r[i * 4 + 2] = Math.max(r[i * 4 + 2], r[j * 4 + 2]);
+                    r[i * 4 + 3] = Math.max(r[i * 4 + 3], r[j * 4 + 3]);
+                    // The last rectangle takes j's place; look at that slot again
+                    count--;
+                    System.arraycopy(r, count * 4, r, j * 4, 4);
+                    j--;
+                    changed = true;
+                }
+            }
+        }
+        return count;
+    }
+
+    // Same row and touching or overlapping across it, or the same for a column
+    private static boolean touches(float[] r, int a, int b) {
+        boolean sameRow = Math.abs(r[a + 1] - r[b + 1]) < EPSILON && Math.abs(r[a + 3] - r[b + 3]) < EPSILON;
+        if (sameRow && r[a] <= r[b + 2] + EPSILON && r[b] <= r[a + 2] + EPSILON) {
+            return true;
+        }
+        boolean sameColumn = Math.abs(r[a] - r[b]) < EPSILON && Math.abs(r[a + 2] - r[b + 2]) < EPSILON;
+        return sameColumn && r[a + 1] <= r[b + 3] + EPSILON && r[b + 1] <= r[a + 3] + EPSILON;
+    }
+
+    // Outlines run counter-clockwise, like Box2D's polygons, leaving out sides on a shared edge
+    private void addFixtures(Body body, float left, float bottom, float right, float top) {
+        boolean openLeft = Math.abs(left - sharedMinX) < EPSILON;
+        boolean openRight = Math.abs(right - sharedMaxX) < EPSILON;
+
+        if (!openLeft && !openRight) {
+            PolygonShape box = new PolygonShape();
+            box.setAsBox((right - left) / 2, (top - bottom) / 2, new Vector2((left + right) / 2, (bottom + top) / 2), 0);
+            createFixture(body, box);
+            box.dispose();
+        } else if (openLeft && openRight) {
+            addChain(body, new float[] { right, top, left, top }, right + GHOST_LENGTH, top, left - GHOST_LENGTH, top);
+            addChain(body, new float[] { left, bottom, right, bottom }, left - GHOST_LENGTH, bottom,
+                    right + GHOST_LENGTH, bottom);
+        } else if (openLeft) {
+            addChain(body, new float[] { left, bottom, right, bottom, right, top, left, top },
+                    left - GHOST_LENGTH, bottom, left - GHOST_LENGTH, top);
+        } else {
+            addChain(body, new float[] { right, top, left, top, left, bottom, right, bottom },
+                    right + GHOST_LENGTH, top, right + GHOST_LENGTH, bottom);
+        }
+    }
+
+    private void addChain(Body body, float[] vertices, float prevX, float prevY, float nextX, float nextY) {
+        ChainShape chain = new ChainShape();
+        chain.createChain(vertices);
+        chain.setPrevVertex(prevX, prevY);
+        chain.setNextVertex(nextX, nextY);
+        createFixture(body, chain);
+        chain.dispose();
+    }
+
+    private Body createBody(float x, float y) {
+        BodyDef bodyDef = new BodyDef();
+        bodyDef.position.set(x, y);
+        bodyDef.type = BodyDef.BodyType.StaticBody;
+        return world.createBody(bodyDef);
+    }
+
+    private static void createFixture(Body body, Shape shape) {
+        FixtureDef fixtureDef = new FixtureDef();
+        fixtureDef.shape = shape;
+        fixtureDef.density = 1f;
+        fixtureDef.friction = 0.5f;
+        fixtureDef.restitution = 0f;
+        FixtureType.GROUND.create(body, fixtureDef);
+    }
+
+    private Platform toPlatform(Body body, int i) {
+        float width = rects.get(i + 2) - rects.get(i);
+        float height = rects.get(i + 3) - rects.get(i + 1);
+        return new Platform(body, rects.get(i) + width / 2, rects.get(i + 1) + height / 2, width, height);
+    }
+}
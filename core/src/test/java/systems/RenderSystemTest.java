@@ -0,0 +1,325 @@
+package systems;
+
+import static org.junit.Assert.assertEquals;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessFiles;
+import com.badlogic.gdx.backends.headless.mock.graphics.MockGraphics;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.math.Affine2;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Box2D;
+import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+import components.FacingComponent;
+import components.Mappers;
+import entities.Enemy;
+import entities.Player;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Proxy;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import utils.AssetManager;
+import utils.FrameProfiler;
+import utils.GameConstants;
+
+/**
+ * Draws a real Player and Enemy, loaded from the game's own assets, into a batch that only
+ * counts what it's given, and checks that picking and drawing their frames allocates nothing
+ * whichever way they face. Runs from the assets directory, see core/build.gradle.
+ */
+public class RenderSystemTest {
+    private static final int WARMUP_FRAMES = 20000;
+    private static final int FRAMES = 1000;
+    private static final int WINDOWS = 5;
+
+    private static World world;
+
+    private final RecordingBatch batch = new RecordingBatch();
+    private AnimationSystem animationSystem;
+    private RenderSystem renderSystem;
+    private FacingComponent playerFacing;
+    private FacingComponent enemyFacing;
+
+    @BeforeClass
+    public static void loadAssets() {
+        GdxNativesLoader.load();
+        Box2D.init();
+        Gdx.files = new HeadlessFiles();
+        Gdx.graphics = new MockGraphics();
+        // Textures only need GL calls that succeed; nothing here reads anything back
+        Gdx.gl = Gdx.gl20 = (GL20) Proxy.newProxyInstance(GL20.class.getClassLoader(), new Class<?>[] { GL20.class },
+                (proxy, method, args) -> {
+                    Class<?> type = method.getReturnType();
+                    if (type == int.class) {
+                        return 1;
+                    }
+                    if (type == boolean.class) {
+                        return false;
+                    }
+                    return null;
+                });
+        AssetManager.loadAssets();
+        world = new World(new Vector2(0, GameConstants.GRAVITY), true);
+    }
+
+    @AfterClass
+    public static void disposeAssets() {
+        world.dispose();
+        AssetManager.dispose();
+    }
+
+    private void createEntities() {
+        Player player = new Player(world, 5, 3, null);
+        Enemy enemy = new Enemy(world, player, null);
+        enemy.spawn(6, 3);
+        playerFacing = Mappers.FACING.get(player);
+        enemyFacing = Mappers.FACING.get(enemy);
+
+        Engine engine = new Engine();
+        animationSystem = new AnimationSystem(new FrameProfiler());
+        renderSystem = new RenderSystem(batch);
+        engine.addSystem(animationSystem);
+        engine.addSystem(renderSystem);
+        engine.addEntity(player);
+        engine.addEntity(enemy);
+    }
+
+    // Player and enemy face opposite ways and turn round every frame
+    private void drawFrames(int frames) {
+        for (int i = 0; i < frames; i++) {
+            playerFacing.left = i % 2 == 0;
+            enemyFacing.left = !playerFacing.left;
+            animationSystem.update(GameConstants.TIME_STEP);
+            renderSystem.render(0.5f, 0, 0, GameConstants.VIEWPORT_WIDTH, GameConstants.VIEWPORT_HEIGHT);
+        }
+    }
+
+    @Test
+    public void drawsBothWaysWithoutAllocating() {
+        createEntities();
+        drawFrames(WARMUP_FRAMES);
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory
+                .getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        // The JIT may still be swapping in recompiled code, which now and then costs this thread a
+        // few bytes; anything allocated per frame would show up in every window, at FRAMES times
+        long allocated = Long.MAX_VALUE;
+        for (int window = 0; window < WINDOWS && allocated != 0; window++) {
+            batch.draws = 0;
+            batch.mirroredDraws = 0;
+            long before = threads.getThreadAllocatedBytes(thread);
+            drawFrames(FRAMES);
+            allocated = Math.min(allocated, threads.getThreadAllocatedBytes(thread) - before);
+        }
+
+        assertEquals("bytes allocated over " + FRAMES + " frames", 0, allocated);
+        assertEquals(FRAMES * 2, batch.draws);
+        assertEquals(FRAMES, batch.mirroredDraws);
+    }
+
+    @Test
+    public void drawsOnlyWhatTheViewShows() {
+        createEntities();
+        drawFrames(1);
+        assertEquals(2, batch.draws);
+        assertEquals(1, batch.mirroredDraws);
+
+        // Both are well to the left of this view
+        batch.draws = 0;
+        renderSystem.render(0.5f, 20, 0, 20 + GameConstants.VIEWPORT_WIDTH, GameConstants.VIEWPORT_HEIGHT);
+        assertEquals(0, batch.draws);
+    }
+
+    /** Counts rectangle draws of regions and how many of them were mirrored; everything else is ignored. */
+    private static final class RecordingBatch implements Batch {
+        private final Color color = new Color(Color.WHITE);
+        private final Matrix4 projection = new Matrix4();
+        private final Matrix4 transform = new Matrix4();
+        int draws;
+        int mirroredDraws;
+
+        @Override
+        public void draw(TextureRegion region, float x, float y, float width, float height) {
+            draws++;
+            if (region.isFlipX()) {
+                mirroredDraws++;
+            }
+        }
+
+        @Override
+        public void begin() {
+        }
+
+        @Override
+        public void end() {
+        }
+
+        @Override
+        public void setColor(Color tint) {
+            color.set(tint);
+        }
+
+        @Override
+        public void setColor(float r, float g, float b, float a) {
+            color.set(r, g, b, a);
+        }
+
+        @Override
+        public Color getColor() {
+            return color;
+        }
+
+        @Override
+        public void setPackedColor(float packedColor) {
+            Color.abgr8888ToColor(color, packedColor);
+        }
+
+        @Override
+        public float getPackedColor() {
+            return color.toFloatBits();
+        }
+
+        @Override
+        public void draw(Texture texture, float x, float y, float originX, float originY, float width, float height,
+                float scaleX, float scaleY, float rotation, int srcX, int srcY, int srcWidth, int srcHeight,
+                boolean flipX, boolean flipY) {
+        }
+
+        @Override
+        public void draw(Texture texture, float x, float y, float width, float height, int srcX, int srcY,
+                int srcWidth, int srcHeight, boolean flipX, boolean flipY) {
+        }
+
+        @Override
+        public void draw(Texture texture, float x, float y, int srcX, int srcY, int srcWidth, int srcHeight) {
+        }
+
+        @Override
+        public void draw(Texture texture, float x, float y, float width, float height, float u, float v, float u2,
+                float v2) {
+        }
+
+        @Override
+        public void draw(Texture texture, float x, float y) {
+        }
+
+        @Override
+        public void draw(Texture texture, float x, float y, float width, float height) {
+        }
+
+        @Override
+        public void draw(Texture texture, float[] spriteVertices, int offset, int count) {
+        }
+
+        @Override
+        public void draw(TextureRegion region, float x, float y) {
+        }
+
+        @Override
+        public void draw(TextureRegion region, float x, float y, float originX, float originY, float width,
+                float height, float scaleX, float scaleY, float rotation) {
+        }
+
+        @Override
+        public void draw(TextureRegion region, float x, float y, float originX, float originY, float width,
+                float height, float scaleX, float scaleY, float rotation, boolean clockwise) {
+        }
+
+        @Override
+        public void draw(TextureRegion region, float width, float height, Affine2 transform) {
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void disableBlending() {
+        }
+
+        @Override
+        public void enableBlending() {
+        }
+
+        @Override
+        public void setBlendFunction(int srcFunc, int dstFunc) {
+        }
+
+        @Override
+        public void setBlendFunctionSeparate(int srcFuncColor, int dstFuncColor, int srcFuncAlpha, int dstFuncAlpha) {
+        }
+
+        @Override
+        public int getBlendSrcFunc() {
+            return GL20.GL_SRC_ALPHA;
+        }
+
+        @Override
+        public int getBlendDstFunc() {
+            return GL20.GL_ONE_MINUS_SRC_ALPHA;
+        }
+
+        @Override
+        public int getBlendSrcFuncAlpha() {
+            return GL20.GL_SRC_ALPHA;
+        }
+
+        @Override
+        public int getBlendDstFuncAlpha() {
+            return GL20.GL_ONE_MINUS_SRC_ALPHA;
+        }
+
+        @Override
+        public Matrix4 getProjectionMatrix() {
+            return projection;
+        }
+
+        @Override
+        public Matrix4 getTransformMatrix() {
+            return transform;
+        }
+
+        @Override
+        public void setProjectionMatrix(Matrix4 projection) {
+            this.projection.set(projection);
+        }
+
+        @Override
+        public void setTransformMatrix(Matrix4 transform) {
+            this.transform.set(transform);
+        }
+
+        @Override
+        public void setShader(ShaderProgram shader) {
+        }
+
+        @Override
+        public ShaderProgram getShader() {
+            return null;
+        }
+
+        @Override
+        public boolean isBlendingEnabled() {
+            return true;
+        }
+
+        @Override
+        public boolean isDrawing() {
+            return true;
+        }
+
+        @Override
+        public void dispose() {
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.utils.Array;
+import org.junit.Test;
+
+/**
+ * Checks SpatialGrid's queries against testing every box, for boxes that are moved and removed
+ * one by one and for grids that are cleared and refilled, the way CombatSystem uses them.
+ */
+public class SpatialGridTest {
+    private static final int BOXES = 300;
+    private static final int ROUNDS = 50;
+    private static final float WORLD = 40;
+
+    private final RandomXS128 random = new RandomXS128(1);
+    private final float[][] boxes = new float[BOXES][4];
+    private final Array<Integer> found = new Array<>();
+
+    @Test
+    public void movableGridFindsWhatOverlaps() {
+        SpatialGrid<Integer> grid = new SpatialGrid<>(1f, 64);
+        int[] handles = new int[BOXES];
+        boolean[] present = new boolean[BOXES];
+        for (int i = 0; i < BOXES; i++) {
+            place(i);
+            handles[i] = add(grid, i);
+            present[i] = true;
+        }
+
+        for (int round = 0; round < ROUNDS; round++) {
+            for (int i = 0; i < BOXES; i++) {
+                int roll = random.nextInt(10);
+                if (present[i] && roll == 0) {
+                    grid.remove(handles[i]);
+                    present[i] = false;
+                } else if (!present[i] && roll == 0) {
+                    place(i);
+                    handles[i] = add(grid, i);
+                    present[i] = true;
+                } else if (present[i]) {
+                    nudge(i);
+                    grid.update(handles[i], boxes[i][0], boxes[i][1], boxes[i][2], boxes[i][3]);
+                }
+            }
+            checkQueries(grid, present);
+        }
+    }
+
+    @Test
+    public void refilledGridFindsWhatOverlaps() {
+        checkRefills(new SpatialGrid<>(1f, 64, false));
+        // A movable grid can be used the same way
+        checkRefills(new SpatialGrid<>(1f, 64));
+    }
+
+    private void checkRefills(SpatialGrid<Integer> grid) {
+        boolean[] present = new boolean[BOXES];
+        for (int i = 0; i < BOXES; i++) {
+            place(i);
+        }
+        for (int round = 0; round < ROUNDS; round++) {
+            grid.clear();
+            assertEquals(0, grid.size());
+            int added = 0;
+            for (int i = 0; i < BOXES; i++) {
+                nudge(i);
+                present[i] = random.nextInt(4) != 0;
+                if (present[i]) {
+                    // Handles start from 0 again after a clear, in the order items are added
+                    assertEquals(added++, add(grid, i));
+                }
+            }
+            assertEquals(added, grid.size());
+            checkQueries(grid, present);
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void refilledGridCantMove() {
+        SpatialGrid<Integer> grid = new SpatialGrid<>(1f, 64, false);
+        int handle = grid.add(0, 0, 0, 1, 1);
+        grid.update(handle, 1, 1, 2, 2);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void refilledGridCantRemove() {
+        SpatialGrid<Integer> grid = new SpatialGrid<>(1f, 64, false);
+        grid.remove(grid.add(0, 0, 0, 1, 1));
+    }
+
+    private int add(SpatialGrid<Integer> grid, int i) {
+        return grid.add(i, boxes[i][0], boxes[i][1], boxes[i][2], boxes[i][3]);
+    }
+
+    // Anywhere in the world, negative coordinates included, up to 3 cells across
+    private void place(int i) {
+        float x = (random.nextFloat() - 0.5f) * WORLD;
+        float y = (random.nextFloat() - 0.5f) * WORLD;
+        set(i, x, y, x + random.nextFloat() * 3, y + random.nextFloat() * 3);
+    }
+
+    private void nudge(int i) {
+        float dx = (random.nextFloat() - 0.5f) * 0.6f;
+        float dy = (random.nextFloat() - 0.5f) * 0.6f;
+        set(i, boxes[i][0] + dx, boxes[i][1] + dy, boxes[i][2] + dx, boxes[i][3] + dy);
+    }
+
+    private void set(int i, float minX, float minY, float maxX, float maxY) {
+        boxes[i][0] = minX;
+        boxes[i][1] = minY;
+        boxes[i][2] = maxX;
+        boxes[i][3] = maxY;
+    }
+
+    private void checkQueries(SpatialGrid<Integer> grid, boolean[] present) {
+        for (int query = 0; query < 20; query++) {
+            float minX = (random.nextFloat() - 0.5f) * WORLD;
+            float minY = (random.nextFloat() - 0.5f) * WORLD;
+            float maxX = minX + random.nextFloat() * 8;
+            float maxY = minY + random.nextFloat() * 8;
+
+            found.clear();
+            int count = grid.query(minX, minY, maxX, maxY, found);
+            assertEquals(found.size, count);
+            int expected = 0;
+            for (int i = 0; i < BOXES; i++) {
+                float[] box = boxes[i];
+                if (present[i] && box[0] <= maxX && minX <= box[2] && box[1] <= maxY && minY <= box[3]) {
+                    expected++;
+                    assertTrue("box " + i + " missing", found.contains(i, false));
+                }
+            }
+            // Each at most once, so nothing else was found
+            assertEquals(expected, found.size);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package io.github.some_example_name.headless;
+
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+
+/** Launches the simulation benchmark without a window or GPU. */
+public class HeadlessLauncher {
+    public static void main(String[] args) {
+        SimulationBenchmark.Config config = SimulationBenchmark.Config.parse(args);
+        HeadlessApplicationConfiguration configuration = new HeadlessApplicationConfiguration();
+        // The benchmark drives its own loop inside create(), so no render calls are needed.
+        configuration.updatesPerSecond = -1;
+        new HeadlessApplication(new SimulationBenchmark(config), configuration);
+    }
+}
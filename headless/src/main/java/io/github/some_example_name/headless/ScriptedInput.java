@@ -0,0 +1,64 @@
+package io.github.some_example_name.headless;
+
+import entities.PlayerInput;
+
+/**
+ * Plays back a fixed, repeating input pattern so every benchmark run sees the same
+ * sequence of moves, jumps, attacks and dodges.
+ */
+public class ScriptedInput implements PlayerInput {
+    // Length of one full run-right / run-left cycle in ticks
+    private static final int CYCLE = 480;
+
+    private final boolean alwaysRight;
+    private int tick = -1;
+
+    public ScriptedInput() {
+        this(false);
+    }
+
+    // alwaysRight keeps heading right instead of pacing back and forth, e.g. through a streamed level
+    public ScriptedInput(boolean alwaysRight) {
+        this.alwaysRight = alwaysRight;
+    }
+
+    @Override
+    public void poll() {
+        tick++;
+    }
+
+    @Override
+    public boolean isLeftHeld() {
+        return !alwaysRight && tick % CYCLE >= CYCLE / 2;
+    }
+
+    @Override
+    public boolean isRightHeld() {
+        return alwaysRight || tick % CYCLE < CYCLE / 2;
+    }
+
+    @Override
+    public boolean consumeJump() {
+        return tick % 90 == 0;
+    }
+
+    @Override
+    public boolean consumeAttack() {
+        return tick % 75 == 40;
+    }
+
+    @Override
+    public boolean consumeLightAttack() {
+        return tick % 45 == 20;
+    }
+
+    @Override
+    public boolean consumeDodge() {
+        return tick % 200 == 150;
+    }
+
+    @Override
+    public boolean consumeDebugDamage() {
+        return false;
+    }
+}
@@ -0,0 +1,240 @@
+package io.github.some_example_name.headless;
+
+import GameMain.GameWorld;
+import entities.Enemy;
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import systems.AiSystem;
+import utils.FrameProfiler;
+import utils.GameConstants;
+import utils.Log;
+import utils.PathRequestScheduler;
+
+/**
+ * Builds the same world GameScreen does, steps it for a fixed number of ticks with scripted
+ * input, and prints ticks/sec, tick time percentiles and heap allocated per tick.
+ */
+public class SimulationBenchmark extends ApplicationAdapter {
+    private final Config config;
+
+    public SimulationBenchmark(Config config) {
+        this.config = config;
+    }
+
+    @Override
+    public void create() {
+        // Only problems in the report; debug logging would also skew the timings
+        Log.setLevel(Log.Level.WARN);
+        try {
+            run(System.out);
+        } finally {
+            Gdx.app.exit();
+        }
+    }
+
+    private void run(PrintStream out) {
+        GameWorld gameWorld = config.streamed ? new GameWorld(config.seed)
+                : new GameWorld(config.gridWidth, config.gridHeight);
+        spawnEnemies(gameWorld);
+        gameWorld.getSpawner().setWaves(config.waves);
+        AiSystem ai = gameWorld.getEngine().getSystem(AiSystem.class);
+        if (config.aiThreads >= 0) {
+            ai.setThreads(config.aiThreads);
+        }
+        PathRequestScheduler scheduler = gameWorld.getPathfinding().getScheduler();
+        scheduler.setBudgetMicros(config.pathBudgetMicros);
+        ScriptedInput input = new ScriptedInput(config.streamed);
+        gameWorld.getPlayer().setInput(input);
+
+        float dt = GameConstants.TIME_STEP;
+        for (int i = 0; i < config.warmupTicks; i++) {
+            input.poll();
+            gameWorld.step(dt);
+        }
+
+        // Each tick is a profiler frame here, so the phase figures are per tick
+        FrameProfiler profiler = gameWorld.getProfiler();
+        profiler.endFrame();
+
+        long[] tickNanos = new long[config.ticks];
+        // Taken after warmup, so this is the steady state: paths cached, pools and arrays grown
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < config.ticks; i++) {
+            long tickStart = System.nanoTime();
+            input.poll();
+            gameWorld.step(dt);
+            tickNanos[i] = System.nanoTime() - tickStart;
+            profiler.endFrame();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocatedAfter = allocatedBytes();
+        int cacheHits = gameWorld.getPathfinding().getCacheHits();
+        int cacheMisses = gameWorld.getPathfinding().getCacheMisses();
+        float playerX = gameWorld.getPlayer().getBody().getPosition().x;
+        int bodies = gameWorld.getWorld().getBodyCount();
+        int loadedEnemies = gameWorld.getEnemies().size();
+        int loadedChunks = config.streamed ? gameWorld.getStreamer().getLoadedCount() : 0;
+        int waves = gameWorld.getSpawner().getWave();
+        int pooledEnemies = gameWorld.getSpawner().getPooledCount();
+        int aiThreads = ai.getThreads();
+
+        gameWorld.dispose();
+        if (config.csvFile != null) {
+            writeCsv(profiler, config.csvFile);
+        }
+
+        Arrays.sort(tickNanos);
+        out.println("Simulation benchmark");
+        if (config.streamed) {
+            out.printf("  streamed level, seed %d, enemies: %d (%s), ticks: %d (+%d warmup)%n", config.seed,
+                    config.enemies, config.navigation, config.ticks, config.warmupTicks);
+            out.printf("  at the end: player x %.1f, %d chunks, %d bodies, %d enemies%n", playerX, loadedChunks,
+                    bodies, loadedEnemies);
+        } else {
+            out.printf("  enemies: %d (%s), grid: %dx%d, ticks: %d (+%d warmup)%n", config.enemies, config.navigation,
+                    config.gridWidth, config.gridHeight, config.ticks, config.warmupTicks);
+        }
+        out.printf("  enemy pool: %d waiting, %d waves sent%n", pooledEnemies, waves);
+        out.printf("  enemy AI: %d threads (parallel from %d enemies)%n", aiThreads,
+                GameConstants.AI_PARALLEL_MIN_ENEMIES);
+        out.printf("  ticks/sec: %.1f%n", config.ticks / (elapsed / 1e9));
+        out.printf("  tick p50: %.3f ms, p99: %.3f ms, max: %.3f ms%n", percentile(tickNanos, 0.50) / 1e6,
+                percentile(tickNanos, 0.99) / 1e6, tickNanos[tickNanos.length - 1] / 1e6);
+        if (allocatedBefore >= 0 && allocatedAfter >= 0) {
+            out.printf("  allocated/tick: %.1f bytes%n", (allocatedAfter - allocatedBefore) / (double) config.ticks);
+        } else {
+            out.println("  allocated/tick: unavailable on this JVM");
+        }
+        out.printf("  path cache: %d hits, %d misses%n", cacheHits, cacheMisses);
+        out.printf("  path queue: budget %d us/tick, %d searches, max depth %d, latency avg %.2f / max %d ticks%n",
+                scheduler.getBudgetMicros(), scheduler.getCompletedRequests(), scheduler.getMaxQueueDepth(),
+                scheduler.getAverageLatencyFrames(), scheduler.getMaxLatencyFrames());
+        out.printf("  phases over the last %d ticks (avg / p99 ms):%n", profiler.getSampleCount());
+        FrameProfiler.Phase[] simulated = { FrameProfiler.Phase.STREAMING, FrameProfiler.Phase.PHYSICS, FrameProfiler.Phase.PLAYER,
+                FrameProfiler.Phase.ENEMIES, FrameProfiler.Phase.COMBAT, FrameProfiler.Phase.ANIMATION,
+                FrameProfiler.Phase.SPAWNING, FrameProfiler.Phase.PATHFINDING };
+        for (FrameProfiler.Phase phase : simulated) {
+            out.printf("    %-15s %.4f / %.3f%n", phase.getLabel(), profiler.getAverageMillis(phase),
+                    profiler.getPercentileMillis(phase, 0.99f));
+        }
+        out.printf("  gc: %d runs, %.1f ms over the last %d ticks%n", profiler.getWindowGcCount(),
+                profiler.getWindowGcMillis(), profiler.getSampleCount());
+    }
+
+    private static void writeCsv(FrameProfiler profiler, String path) {
+        try (Writer writer = new FileWriter(path)) {
+            profiler.writeCsv(writer);
+        } catch (IOException e) {
+            throw new RuntimeException("Couldn't write " + path, e);
+        }
+    }
+
+    // Spreads enemies across the level, alternating between the ground and the platforms
+    private void spawnEnemies(GameWorld gameWorld) {
+        float width = GameConstants.VIEWPORT_WIDTH - 1;
+        for (int i = 0; i < config.enemies; i++) {
+            float x = 0.5f + width * (i + 0.5f) / config.enemies;
+            float y = 1 + (i % 3);
+            gameWorld.spawnEnemy(x, y).setNavigationMode(config.navigation);
+        }
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        return sorted[(int) Math.round(p * (sorted.length - 1))];
+    }
+
+    // Bytes allocated so far by every live thread, so the AI's worker threads count too, or -1 if
+    // the JVM can't tell us
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean sunThreads = (com.sun.management.ThreadMXBean) threads;
+            if (sunThreads.isThreadAllocatedMemorySupported()) {
+                sunThreads.setThreadAllocatedMemoryEnabled(true);
+                long total = 0;
+                for (long bytes : sunThreads.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+                    // -1 for threads that ended in between
+                    total += Math.max(0, bytes);
+                }
+                return total;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Command line options: --ticks N --warmup N --enemies N --grid WxH --nav astar|flow|hpa
+     * --path-budget MICROS --csv FILE (per-tick profile of the last ticks)
+     * --stream SEED (an endless streamed level instead of the grid; the player keeps running right)
+     * --waves on|off (send waves of enemies whenever none are left alive)
+     * --ai-threads N (threads enemy AI thinks on, 0 for one per core; GameConstants.AI_THREADS by default)
+     */
+    public static class Config {
+        int ticks = 10000;
+        int warmupTicks = 1000;
+        int enemies = 2;
+        int gridWidth = GameWorld.DEFAULT_GRID_WIDTH;
+        int gridHeight = GameWorld.DEFAULT_GRID_HEIGHT;
+        Enemy.NavigationMode navigation = Enemy.NavigationMode.A_STAR;
+        int pathBudgetMicros = GameConstants.PATHFINDING_BUDGET_MICROS;
+        String csvFile;
+        boolean streamed;
+        long seed;
+        boolean waves;
+        int aiThreads = -1;
+
+        public static Config parse(String[] args) {
+            Config config = new Config();
+            for (int i = 0; i + 1 < args.length; i += 2) {
+                String value = args[i + 1];
+                switch (args[i]) {
+                    case "--ticks":
+                        config.ticks = Integer.parseInt(value);
+                        break;
+                    case "--warmup":
+                        config.warmupTicks = Integer.parseInt(value);
+                        break;
+                    case "--enemies":
+                        config.enemies = Integer.parseInt(value);
+                        break;
+                    case "--grid":
+                        String[] size = value.toLowerCase().split("x");
+                        config.gridWidth = Integer.parseInt(size[0]);
+                        config.gridHeight = Integer.parseInt(size[1]);
+                        break;
+                    case "--nav":
+                        config.navigation = value.equalsIgnoreCase("flow") ? Enemy.NavigationMode.FLOW_FIELD
+                                : value.equalsIgnoreCase("hpa") ? Enemy.NavigationMode.HIERARCHICAL
+                                : Enemy.NavigationMode.A_STAR;
+                        break;
+                    case "--path-budget":
+                        config.pathBudgetMicros = Integer.parseInt(value);
+                        break;
+                    case "--csv":
+                        config.csvFile = value;
+                        break;
+                    case "--stream":
+                        config.streamed = true;
+                        config.seed = Long.parseLong(value);
+                        break;
+                    case "--waves":
+                        config.waves = value.equalsIgnoreCase("on");
+                        break;
+                    case "--ai-threads":
+                        config.aiThreads = Integer.parseInt(value);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option: " + args[i]);
+                }
+            }
+            return config;
+        }
+    }
+}